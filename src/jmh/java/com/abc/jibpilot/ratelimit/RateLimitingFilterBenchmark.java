@@ -0,0 +1,146 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.abc.jibpilot.auth.filter.BearerTokenResolver;
+import com.abc.jibpilot.auth.service.JwtService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link RateLimitingFilter} for an anonymous caller behind a proxy.
+ * <p>
+ * Run with {@code ./gradlew jmh}; the {@code gc} profiler reports {@code gc.alloc.rate.norm}, the bytes
+ * allocated per request. {@code legacyPath} replays what the filter used to do per request (split the
+ * forwarded header, build an {@code ip:} key, switch on the category for the limit, format headers with
+ * {@code String.valueOf} and {@code Instant.now()}) against the same bucket store, so the two numbers are
+ * directly comparable.
+ * <p>
+ * Request and response are thin wrappers that skip the mock objects' own header bookkeeping, so only the
+ * filter's allocations are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitingFilterBenchmark {
+
+    private static final String FORWARDED_FOR = "198.51.100.23, 10.0.0.1";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RateLimitingConfig config;
+    private RateLimitBucketStore bucketStore;
+    private RateLimitingFilter filter;
+    private FixedRequest request;
+    private DiscardingResponse response;
+
+    @Setup
+    public void setUp() {
+        config = new RateLimitingConfig();
+        ReflectionTestUtils.setField(config, "rateLimitingEnabled", true);
+        ReflectionTestUtils.setField(config, "authRequestsPerMinute", 5);
+        ReflectionTestUtils.setField(config, "publicRequestsPerMinute", 100);
+        // High enough that the bucket never runs dry during a run
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 1_000_000_000);
+        ReflectionTestUtils.setField(config, "maxBuckets", 10_000L);
+        ReflectionTestUtils.setField(config, "bucketIdleExpirySeconds", 60L);
+
+        bucketStore = new LocalRateLimitBucketStore(config);
+        JwtService jwtService = new JwtService("benchmark-secret-key-that-is-long-enough-for-hmac", 3600);
+        RateLimitKeyResolver keyResolver = new RateLimitKeyResolver(
+                new BearerTokenResolver(jwtService), new TokenRevocationService(3600),
+                new TrustedProxies(new String[]{"127.0.0.0/8", "10.0.0.0/8"}));
+        filter = new RateLimitingFilter(config, keyResolver, JsonMapper.builder().build(), bucketStore,
+                new RateLimitCostTable(new String[]{"GET /api/v1/students=10", "GET /api/v1/courses/{id}/students=5"}),
+                new HeavyHitterTracker(true, 20, 60, 4, 2048));
+        request = new FixedRequest("GET", "/api/v1/courses/42", FORWARDED_FOR);
+        response = new DiscardingResponse();
+    }
+
+    @Benchmark
+    public DiscardingResponse currentFilter() throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public DiscardingResponse legacyPath() {
+        String key = "ip:" + request.getHeader("X-Forwarded-For").split(",")[0].trim();
+        RateLimitProbe probe = bucketStore.tryConsume(EndpointCategory.AUTHENTICATED, key, 1);
+        int capacity = switch (EndpointCategory.AUTHENTICATED) {
+            case AUTH -> config.getAuthRequestsPerMinute();
+            case PUBLIC -> config.getPublicRequestsPerMinute();
+            case AUTHENTICATED -> config.getAuthenticatedRequestsPerMinute();
+            case NONE -> 0;
+        };
+        response.setHeader("X-RateLimit-Limit", String.valueOf(capacity));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.remainingTokens()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(60).getEpochSecond()));
+        return response;
+    }
+
+    /**
+     * Serves the few values the filter reads from fields instead of the mock's case-insensitive header map.
+     */
+    static final class FixedRequest extends HttpServletRequestWrapper {
+        private final String method;
+        private final String uri;
+        private final String forwardedFor;
+
+        FixedRequest(String method, String uri, String forwardedFor) {
+            super(new MockHttpServletRequest(method, uri));
+            this.method = method;
+            this.uri = uri;
+            this.forwardedFor = forwardedFor;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return uri;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return "X-Forwarded-For".equals(name) ? forwardedFor : null;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops headers so the response's own storage does not show up in the allocation figures.
+     */
+    public static final class DiscardingResponse extends HttpServletResponseWrapper {
+        private volatile String lastHeader;
+
+        DiscardingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            lastHeader = value;
+        }
+    }
+}
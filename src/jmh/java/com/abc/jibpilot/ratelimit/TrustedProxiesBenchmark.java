@@ -0,0 +1,61 @@
+package com.abc.jibpilot.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of classifying forwarding hops against the trusted proxy trie, compared with the split-based
+ * first-entry lookup it replaced. Run with {@code ./gradlew jmh} and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrustedProxiesBenchmark {
+
+    @Param({
+            "203.0.113.7, 10.1.2.3",
+            "203.0.113.7, 198.51.100.1, 172.16.0.9, 10.1.2.3",
+            "2001:db8::1, fd00::5"
+    })
+    public String forwardedFor;
+
+    private TrustedProxies trustedProxies;
+
+    @Setup
+    public void setUp() {
+        trustedProxies = new TrustedProxies(new String[]{
+                "127.0.0.0/8", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "::1/128", "fc00::/7"});
+    }
+
+    /**
+     * Old behaviour: trust whatever the client put first.
+     */
+    @Benchmark
+    public String legacyFirstEntry() {
+        return forwardedFor.split(",")[0].trim();
+    }
+
+    /**
+     * Walks the header from the right, classifying each hop in place, and returns the first untrusted one.
+     */
+    @Benchmark
+    public int rightToLeftWalk() {
+        int end = forwardedFor.length();
+        while (end >= 0) {
+            int comma = forwardedFor.lastIndexOf(',', end - 1);
+            if (trustedProxies.classify(forwardedFor, comma + 1, end) != TrustedProxies.Hop.TRUSTED) {
+                return comma + 1;
+            }
+            end = comma;
+        }
+        return 0;
+    }
+}
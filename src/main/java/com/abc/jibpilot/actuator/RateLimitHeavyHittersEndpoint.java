@@ -0,0 +1,22 @@
+package com.abc.jibpilot.actuator;
+
+import com.abc.jibpilot.ratelimit.HeavyHitterTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "rateLimitHeavyHitters")
+@RequiredArgsConstructor
+public class RateLimitHeavyHittersEndpoint {
+
+    private final HeavyHitterTracker heavyHitterTracker;
+
+    @ReadOperation
+    public Map<String, HeavyHitterTracker.WindowReport> getHeavyHitters() {
+        return heavyHitterTracker.report();
+    }
+}
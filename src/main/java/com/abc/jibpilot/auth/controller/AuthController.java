@@ -1,16 +1,28 @@
 package com.abc.jibpilot.auth.controller;
 
 import com.abc.jibpilot.auth.dto.AuthResponse;
+import com.abc.jibpilot.auth.dto.BulkRegisterStudentsRequest;
+import com.abc.jibpilot.auth.dto.BulkRegistrationResponse;
 import com.abc.jibpilot.auth.dto.LoginRequest;
 import com.abc.jibpilot.auth.dto.RegisterStudentRequest;
 import com.abc.jibpilot.auth.service.AuthService;
+import com.abc.jibpilot.auth.service.BulkRegistrationService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -18,14 +30,34 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final BulkRegistrationService bulkRegistrationService;
+
+    // Both endpoints complete asynchronously so request threads are not held while BCrypt runs
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterStudentRequest request) {
-        return ResponseEntity.ok(authService.registerStudent(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterStudentRequest request) {
+        return authService.registerStudent(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return authService.login(request).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/register/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BulkRegistrationResponse> registerBulk(@Valid @RequestBody BulkRegisterStudentsRequest request) {
+        return ResponseEntity.ok(bulkRegistrationService.register(request.students()));
+    }
+
+    @PostMapping(value = "/register/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BulkRegistrationResponse> registerBulkFile(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(bulkRegistrationService.register(bulkRegistrationService.parseCsv(inputStream)));
+        }
     }
 }
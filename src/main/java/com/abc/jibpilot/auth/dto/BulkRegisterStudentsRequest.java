@@ -0,0 +1,13 @@
+package com.abc.jibpilot.auth.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Rows are validated one by one during registration, so a bad row is reported instead of failing the batch.
+ */
+public record BulkRegisterStudentsRequest(
+        @NotEmpty(message = "At least one student is required")
+        List<RegisterStudentRequest> students
+) {}
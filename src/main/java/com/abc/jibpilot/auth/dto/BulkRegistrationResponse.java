@@ -0,0 +1,10 @@
+package com.abc.jibpilot.auth.dto;
+
+import java.util.List;
+
+public record BulkRegistrationResponse(
+        int total,
+        int created,
+        int failed,
+        List<BulkRegistrationResult> results
+) {}
@@ -0,0 +1,30 @@
+package com.abc.jibpilot.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkRegistrationResult(
+        int row,
+        String email,
+        Status status,
+        Long studentId,
+        String message
+) {
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    public static BulkRegistrationResult created(int row, String email, Long studentId) {
+        return new BulkRegistrationResult(row, email, Status.CREATED, studentId, null);
+    }
+
+    public static BulkRegistrationResult duplicate(int row, String email, String message) {
+        return new BulkRegistrationResult(row, email, Status.DUPLICATE, null, message);
+    }
+
+    public static BulkRegistrationResult invalid(int row, String email, String message) {
+        return new BulkRegistrationResult(row, email, Status.INVALID, null, message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.abc.jibpilot.auth.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One email address in use by a person: a student, that student's user account, or both. The primary key
+ * makes email uniqueness across {@code students} and {@code users} a single database constraint. Rows are
+ * written only through {@code EmailIdentityService}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_identities")
+public class EmailIdentity {
+
+    @Id
+    private String email;
+
+    /**
+     * The student the email belongs to; {@code null} for accounts without a student, such as the admin.
+     */
+    @Column(name = "student_id")
+    private Long studentId;
+}
@@ -0,0 +1,57 @@
+package com.abc.jibpilot.auth.filter;
+
+import com.abc.jibpilot.auth.model.VerifiedToken;
+import com.abc.jibpilot.auth.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Verifies the request's bearer token at most once per request.
+ * <p>
+ * The rate limiter runs before {@link JwtAuthenticationFilter} but still needs the caller's identity, so
+ * whichever of the two asks first verifies the token and the outcome (including a failed verification)
+ * is kept as a request attribute for the other.
+ */
+@Component
+@RequiredArgsConstructor
+public class BearerTokenResolver {
+
+    static final String VERIFIED_TOKEN_ATTRIBUTE = BearerTokenResolver.class.getName() + ".VERIFIED_TOKEN";
+    private static final Object INVALID = new Object();
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    /**
+     * @param request current request
+     * @return the verified token, or empty if there is no bearer token or it failed verification
+     */
+    public Optional<VerifiedToken> resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+        if (cached instanceof VerifiedToken token) {
+            return Optional.of(token);
+        }
+        if (cached == INVALID) {
+            return Optional.empty();
+        }
+
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+
+        try {
+            VerifiedToken token = jwtService.verify(authHeader.substring(BEARER_PREFIX.length()));
+            request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, token);
+            return Optional.of(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, INVALID);
+            return Optional.empty();
+        }
+    }
+}
@@ -1,14 +1,15 @@
 package com.abc.jibpilot.auth.filter;
 
 import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.VerifiedToken;
 import com.abc.jibpilot.auth.service.AppUserDetailsService;
-import com.abc.jibpilot.auth.service.JwtService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,44 +17,60 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final BearerTokenResolver bearerTokenResolver;
     private final AppUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * When enabled the principal is built from the token claims instead of being re-read from the database.
+     */
+    @Value("${app.security.jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        // Signature and expiry are checked once per request; the rate limiter may already have done it
+        Optional<VerifiedToken> resolved = bearerTokenResolver.resolve(request);
+        if (resolved.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                AppUserDetails userDetails = (AppUserDetails) userDetailsService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            VerifiedToken verifiedToken = resolved.get();
+            String username = verifiedToken.subject();
+
+            if (username != null
+                    && !tokenRevocationService.isRevoked(verifiedToken)
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                AppUserDetails userDetails = resolveUserDetails(verifiedToken);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception ignored) {
-            // Ignore parsing/auth errors and continue without authentication
+            // Ignore lookup/auth errors and continue without authentication
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private AppUserDetails resolveUserDetails(VerifiedToken token) {
+        if (stateless && token.userId() != null && token.role() != null) {
+            return AppUserDetails.fromToken(token);
+        }
+        return (AppUserDetails) userDetailsService.loadUserByUsername(token.subject());
+    }
 }
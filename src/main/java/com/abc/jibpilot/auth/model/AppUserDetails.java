@@ -24,6 +24,14 @@ public class AppUserDetails implements UserDetails {
         this.role = role;
     }
 
+    /**
+     * Builds a principal from already verified token claims without touching the database.
+     * The password is not part of the token and is left {@code null}.
+     */
+    public static AppUserDetails fromToken(VerifiedToken token) {
+        return new AppUserDetails(token.userId(), token.studentId(), token.subject(), null, token.role());
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -0,0 +1,15 @@
+package com.abc.jibpilot.auth.model;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ */
+public record VerifiedToken(
+        String subject,
+        Role role,
+        Long studentId,
+        Long userId,
+        Instant issuedAt,
+        Instant expiresAt
+) {}
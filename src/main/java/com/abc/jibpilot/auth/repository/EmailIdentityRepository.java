@@ -0,0 +1,37 @@
+package com.abc.jibpilot.auth.repository;
+
+import com.abc.jibpilot.auth.entity.EmailIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EmailIdentityRepository extends JpaRepository<EmailIdentity, String> {
+
+    /**
+     * Inserts the claim directly, so a taken email fails on the primary key instead of being merged. Claims
+     * are stored in lower case, which makes them case-insensitive.
+     */
+    @Modifying
+    @Query(value = """
+            insert into email_identities (email, student_id) values (lower(:email), cast(:studentId as bigint))
+            """, nativeQuery = true)
+    int insertClaim(@Param("email") String email, @Param("studentId") Long studentId);
+
+    /**
+     * Drops the claim once neither a student nor a user account uses the email any more. Flushes first so
+     * an email just changed through an entity is taken into account.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            delete from email_identities
+            where email = lower(:email)
+              and not exists (select 1 from students where lower(email) = lower(:email))
+              and not exists (select 1 from users where lower(email) = lower(:email))
+            """, nativeQuery = true)
+    int deleteIfUnused(@Param("email") String email);
+
+    @Modifying
+    @Query(value = "delete from email_identities where student_id = :studentId", nativeQuery = true)
+    int deleteByStudentId(@Param("studentId") Long studentId);
+}
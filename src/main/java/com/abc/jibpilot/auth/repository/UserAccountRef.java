@@ -0,0 +1,10 @@
+package com.abc.jibpilot.auth.repository;
+
+/**
+ * Id and email of a user account, read without loading the entity (and with it the linked student).
+ */
+public interface UserAccountRef {
+    Long getId();
+
+    String getEmail();
+}
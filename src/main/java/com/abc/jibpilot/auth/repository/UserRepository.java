@@ -2,10 +2,37 @@ package com.abc.jibpilot.auth.repository;
 
 import com.abc.jibpilot.auth.entity.UserAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserAccount, Long> {
     Optional<UserAccount> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Returns which of the given lower-case emails are already taken, in any case, by a user account or a
+     * student record.
+     */
+    @Query(value = """
+            select lower(email) from users where lower(email) in (:emails)
+            union
+            select lower(email) from students where lower(email) in (:emails)
+            """, nativeQuery = true)
+    List<String> findRegisteredEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.id as id, u.email as email from UserAccount u where u.student.id = :studentId")
+    Optional<UserAccountRef> findRefByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Deletes the account row directly; unlike {@code delete(entity)} this neither loads the account nor
+     * cascades to its student.
+     */
+    @Modifying
+    @Query(value = "delete from users where id = :id", nativeQuery = true)
+    int deleteAccountById(@Param("id") Long id);
 }
@@ -3,20 +3,88 @@ package com.abc.jibpilot.auth.service;
 import com.abc.jibpilot.auth.entity.UserAccount;
 import com.abc.jibpilot.auth.model.AppUserDetails;
 import com.abc.jibpilot.auth.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+
+/**
+ * Loads principals from the {@code users} table through a size-bounded, expiring cache keyed by email.
+ * <p>
+ * Callers that change or remove an account must call {@link #evict(String)} so the next request
+ * re-reads the row. Inside a transaction the eviction waits for the commit; evicting earlier would let a
+ * concurrent request cache the old row again before the change is visible. Hit, miss and eviction counts
+ * are published as {@code cache.*} meters tagged {@code cache=userDetails}.
+ */
 @Service
-@RequiredArgsConstructor
-public class AppUserDetailsService implements UserDetailsService {
+public class AppUserDetailsService implements UserDetailsService, MeterBinder {
+
+    private static final String CACHE_NAME = "userDetails";
 
     private final UserRepository userRepository;
+    private final boolean cacheEnabled;
+    private final Cache<String, AppUserDetails> cache;
+
+    public AppUserDetailsService(
+            UserRepository userRepository,
+            @Value("${app.security.user-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.cacheEnabled = cacheEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!cacheEnabled) {
+            return loadFromDatabase(username);
+        }
+        // Lookups that throw are not cached, so unknown emails always go to the database
+        return cache.get(username, this::loadFromDatabase);
+    }
+
+    /**
+     * Drops the cached principal for the given email, if any, once the current transaction commits
+     * (straight away when there is none). Nothing is evicted if the transaction rolls back.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        } else {
+            cache.invalidate(email);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private AppUserDetails loadFromDatabase(String username) {
         UserAccount user = userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
@@ -10,13 +10,14 @@ import com.abc.jibpilot.auth.repository.UserRepository;
 import com.abc.jibpilot.student.entity.Student;
 import com.abc.jibpilot.student.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import static org.springframework.http.HttpStatus.CONFLICT;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -24,35 +25,65 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final StudentRepository studentRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final EmailIdentityService emailIdentityService;
+    private final TransactionTemplate transactionTemplate;
+    // Boot's application executor; takes the blocking database work so the hashing pool only hashes
+    private final AsyncTaskExecutor applicationTaskExecutor;
 
-    public AuthResponse registerStudent(RegisterStudentRequest request) {
-        if (userRepository.existsByEmail(request.email())) {
-            throw new ResponseStatusException(CONFLICT, "Email already in use");
-        }
-        studentRepository.findByEmail(request.email()).ifPresent(existing -> {
-            throw new ResponseStatusException(CONFLICT, "Email already in use");
-        });
+    /**
+     * Registers a student account. Only the BCrypt hash runs on the password hashing pool; the inserts, and any
+     * wait for a connection, continue on the application task executor so logins never queue behind them. Email
+     * uniqueness is left to the database: the inserts and the email claim share one transaction, and a taken
+     * email fails it with 409.
+     */
+    public CompletableFuture<AuthResponse> registerStudent(RegisterStudentRequest request) {
+        return passwordHashingService.encode(request.password())
+                .thenApplyAsync(encodedPassword -> transactionTemplate.execute(status ->
+                        createStudentAccount(request, encodedPassword)), applicationTaskExecutor);
+    }
+
+    /**
+     * Authenticates on the password hashing pool, since the BCrypt match dominates the cost of a login.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(request.email(), request.password());
+
+        return passwordHashingService.verify(() -> authenticationManager.authenticate(authToken))
+                .thenApply(authentication -> {
+                    AppUserDetails userDetails = (AppUserDetails) authentication.getPrincipal();
+                    String token = jwtService.generateToken(userDetails);
+                    return new AuthResponse(token, "Bearer", userDetails.getRole(), userDetails.getStudentId());
+                });
+    }
 
+    private AuthResponse createStudentAccount(RegisterStudentRequest request, String encodedPassword) {
         Student student = Student.builder()
                 .firstName(request.firstName())
                 .lastName(request.lastName())
                 .email(request.email())
                 .build();
 
-        Student savedStudent = studentRepository.save(student);
-
         UserAccount user = UserAccount.builder()
                 .email(request.email())
-                .password(passwordEncoder.encode(request.password()))
+                .password(encodedPassword)
                 .role(Role.STUDENT)
-                .student(savedStudent)
                 .build();
-        savedStudent.setUserAccount(user);
 
-        UserAccount savedUser = userRepository.save(user);
+        Student savedStudent;
+        UserAccount savedUser;
+        try {
+            savedStudent = studentRepository.save(student);
+            emailIdentityService.claim(request.email(), savedStudent.getId());
+            user.setStudent(savedStudent);
+            savedStudent.setUserAccount(user);
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw EmailIdentityService.translate(ex);
+        }
 
         AppUserDetails userDetails = new AppUserDetails(
                 savedUser.getId(),
@@ -65,14 +96,4 @@ public class AuthService {
         String token = jwtService.generateToken(userDetails);
         return new AuthResponse(token, "Bearer", savedUser.getRole(), savedStudent.getId());
     }
-
-    public AuthResponse login(LoginRequest request) {
-        UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(request.email(), request.password());
-        var authentication = authenticationManager.authenticate(authToken);
-        AppUserDetails userDetails = (AppUserDetails) authentication.getPrincipal();
-
-        String token = jwtService.generateToken(userDetails);
-        return new AuthResponse(token, "Bearer", userDetails.getRole(), userDetails.getStudentId());
-    }
 }
@@ -0,0 +1,242 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.dto.BulkRegistrationResponse;
+import com.abc.jibpilot.auth.dto.BulkRegistrationResult;
+import com.abc.jibpilot.auth.dto.RegisterStudentRequest;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Registers many student accounts at once.
+ * <p>
+ * Email uniqueness for the whole batch is checked with set-based queries, passwords are hashed in
+ * parallel on the {@link PasswordHashingService} pool, and rows (with their {@code email_identities}
+ * claims) are written with JDBC batch inserts in a single transaction. Every input row gets a result entry.
+ */
+@Slf4j
+@Service
+public class BulkRegistrationService {
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private static final String INSERT_STUDENT_SQL =
+            "insert into students (first_name, last_name, email) values (?, ?, ?)";
+    private static final String INSERT_USER_SQL =
+            "insert into users (email, password, role, student_id) values (?, ?, ?, ?)";
+    private static final String INSERT_CLAIM_SQL =
+            "insert into email_identities (email, student_id) values (lower(?), ?)";
+    private static final String SELECT_STUDENT_IDS_SQL =
+            "select id, email from students where email in (:emails)";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int maxRows;
+
+    public BulkRegistrationService(
+            UserRepository userRepository,
+            PasswordHashingService passwordHashingService,
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Validator validator,
+            @Value("${app.security.bulk-registration.max-rows:20000}") int maxRows
+    ) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.maxRows = maxRows;
+    }
+
+    public BulkRegistrationResponse register(List<RegisterStudentRequest> rows) {
+        if (rows.size() > maxRows) {
+            throw tooManyRows(maxRows);
+        }
+
+        BulkRegistrationResult[] results = new BulkRegistrationResult[rows.size()];
+        List<Integer> candidates = validateAndDeduplicate(rows, results);
+        rejectRegisteredEmails(rows, candidates, results);
+
+        List<Integer> accepted = candidates.stream()
+                .filter(index -> results[index] == null)
+                .toList();
+        if (!accepted.isEmpty()) {
+            List<String> encodedPasswords = passwordHashingService.encodeAll(accepted.stream()
+                    .map(index -> rows.get(index).password())
+                    .toList());
+            Map<String, Long> studentIds;
+            try {
+                studentIds = transactionTemplate.execute(status -> insertAccounts(rows, accepted, encodedPasswords));
+            } catch (DataIntegrityViolationException ex) {
+                // An email was taken after the check above; the whole batch is rolled back
+                throw EmailIdentityService.translate(ex);
+            }
+            for (Integer index : accepted) {
+                String email = rows.get(index).email();
+                results[index] = BulkRegistrationResult.created(index, email, studentIds.get(email));
+            }
+        }
+
+        int created = accepted.size();
+        log.info("Bulk registration finished: {} of {} rows created", created, rows.size());
+        return new BulkRegistrationResponse(rows.size(), created, rows.size() - created, List.of(results));
+    }
+
+    /**
+     * Reads rows from a CSV file with the columns {@code firstName,lastName,email,password}.
+     * A header line is optional. Fields may not contain commas. Reading stops with 400 as soon as the
+     * file has more than {@code app.security.bulk-registration.max-rows} rows.
+     */
+    public List<RegisterStudentRequest> parseCsv(InputStream inputStream) throws IOException {
+        return parseCsv(inputStream, maxRows);
+    }
+
+    List<RegisterStudentRequest> parseCsv(InputStream inputStream, int maxRows) throws IOException {
+        List<RegisterStudentRequest> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (first && line.regionMatches(true, 0, "firstName", 0, "firstName".length())) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                if (rows.size() == maxRows) {
+                    throw tooManyRows(maxRows);
+                }
+                String[] fields = line.split(",", -1);
+                rows.add(new RegisterStudentRequest(
+                        field(fields, 0),
+                        field(fields, 1),
+                        field(fields, 2),
+                        field(fields, 3)
+                ));
+            }
+        }
+        return rows;
+    }
+
+    private List<Integer> validateAndDeduplicate(List<RegisterStudentRequest> rows, BulkRegistrationResult[] results) {
+        List<Integer> candidates = new ArrayList<>(rows.size());
+        Set<String> seen = new HashSet<>();
+        for (int index = 0; index < rows.size(); index++) {
+            RegisterStudentRequest row = rows.get(index);
+            if (row == null) {
+                results[index] = BulkRegistrationResult.invalid(index, null, "Row is empty");
+                continue;
+            }
+            Set<ConstraintViolation<RegisterStudentRequest>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                results[index] = BulkRegistrationResult.invalid(index, row.email(), message);
+            } else if (!seen.add(row.email().toLowerCase(Locale.ROOT))) {
+                results[index] = BulkRegistrationResult.duplicate(index, row.email(), "Duplicate email in batch");
+            } else {
+                candidates.add(index);
+            }
+        }
+        return candidates;
+    }
+
+    private void rejectRegisteredEmails(List<RegisterStudentRequest> rows, List<Integer> candidates,
+                                        BulkRegistrationResult[] results) {
+        List<String> emails = candidates.stream()
+                .map(index -> rows.get(index).email().toLowerCase(Locale.ROOT))
+                .toList();
+        Set<String> registered = new HashSet<>();
+        for (int from = 0; from < emails.size(); from += QUERY_CHUNK_SIZE) {
+            registered.addAll(userRepository.findRegisteredEmails(
+                    emails.subList(from, Math.min(from + QUERY_CHUNK_SIZE, emails.size()))));
+        }
+        for (Integer index : candidates) {
+            String email = rows.get(index).email();
+            if (registered.contains(email.toLowerCase(Locale.ROOT))) {
+                results[index] = BulkRegistrationResult.duplicate(index, email, "Email already in use");
+            }
+        }
+    }
+
+    private Map<String, Long> insertAccounts(List<RegisterStudentRequest> rows, List<Integer> accepted,
+                                             List<String> encodedPasswords) {
+        List<RegisterStudentRequest> students = accepted.stream().map(rows::get).toList();
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_STUDENT_SQL, students, INSERT_BATCH_SIZE, (ps, student) -> {
+            ps.setString(1, student.firstName());
+            ps.setString(2, student.lastName());
+            ps.setString(3, student.email());
+        });
+
+        // IDENTITY keys are not returned by batch inserts portably, so read them back in bulk
+        List<String> emails = students.stream().map(RegisterStudentRequest::email).toList();
+        Map<String, Long> studentIds = new HashMap<>(emails.size() * 2);
+        for (int from = 0; from < emails.size(); from += QUERY_CHUNK_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource(
+                    "emails", emails.subList(from, Math.min(from + QUERY_CHUNK_SIZE, emails.size())));
+            jdbcTemplate.query(SELECT_STUDENT_IDS_SQL, params, (RowCallbackHandler) rs ->
+                    studentIds.put(rs.getString("email"), rs.getLong("id")));
+        }
+
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_CLAIM_SQL, emails, INSERT_BATCH_SIZE, (ps, email) -> {
+            ps.setString(1, email);
+            ps.setLong(2, studentIds.get(email));
+        });
+
+        List<Integer> positions = new ArrayList<>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            positions.add(i);
+        }
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_USER_SQL, positions, INSERT_BATCH_SIZE, (ps, position) -> {
+            String email = students.get(position).email();
+            ps.setString(1, email);
+            ps.setString(2, encodedPasswords.get(position));
+            ps.setString(3, Role.STUDENT.name());
+            ps.setLong(4, studentIds.get(email));
+        });
+        return studentIds;
+    }
+
+    private static ResponseStatusException tooManyRows(int maxRows) {
+        return new ResponseStatusException(BAD_REQUEST, "At most " + maxRows + " students per request");
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length ? fields[index].trim() : null;
+    }
+}
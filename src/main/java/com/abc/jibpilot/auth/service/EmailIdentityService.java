@@ -0,0 +1,79 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.repository.EmailIdentityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+/**
+ * Email uniqueness across students and user accounts, enforced by the database instead of checked with reads
+ * before each write.
+ * <p>
+ * Every email in use has a row in {@code email_identities}, in lower case, naming the student it belongs to.
+ * Writers claim the email in the same transaction as the student or account row; a concurrent or earlier claim
+ * fails on the primary key, and the failure (or one on the {@code students}/{@code users} unique indexes)
+ * becomes {@code 409 Email already in use}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class EmailIdentityService {
+
+    // Constraint or table names that identify an email clash in the driver's message, lower case
+    private static final List<String> EMAIL_CONSTRAINTS =
+            List.of("email_identities", "uk_students_email", "uk_users_email");
+
+    private final EmailIdentityRepository emailIdentityRepository;
+
+    /**
+     * Claims an email for a student, or for an account without one when {@code studentId} is {@code null}.
+     *
+     * @throws ResponseStatusException with 409 if the email is already claimed
+     */
+    public void claim(String email, Long studentId) {
+        try {
+            emailIdentityRepository.insertClaim(email, studentId);
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex);
+        }
+    }
+
+    /**
+     * Releases an email after its student or account moved to another one, unless something still uses it.
+     * Pending entity changes are flushed first, so a clash on the new email surfaces here as a 409.
+     */
+    public void releaseIfUnused(String email) {
+        try {
+            emailIdentityRepository.deleteIfUnused(email);
+        } catch (DataIntegrityViolationException ex) {
+            throw translate(ex);
+        }
+    }
+
+    public void releaseAll(Long studentId) {
+        emailIdentityRepository.deleteByStudentId(studentId);
+    }
+
+    public static boolean isEmailConflict(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        if (message == null) {
+            return false;
+        }
+        String lower = message.toLowerCase(Locale.ROOT);
+        return EMAIL_CONSTRAINTS.stream().anyMatch(lower::contains);
+    }
+
+    /**
+     * Maps an email clash to {@code 409 Email already in use}; any other violation is returned unchanged.
+     */
+    public static RuntimeException translate(DataIntegrityViolationException ex) {
+        return isEmailConflict(ex) ? new ResponseStatusException(CONFLICT, "Email already in use", ex) : ex;
+    }
+}
@@ -1,7 +1,11 @@
 package com.abc.jibpilot.auth.service;
 
 import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.model.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -12,14 +16,14 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
-import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
 
     private final SecretKey secretKey;
     private final long expirationSeconds;
+    // Immutable once built, so a single instance is shared by all request threads
+    private final JwtParser jwtParser;
 
     public JwtService(
             @Value("${app.security.jwt.secret}") String secret,
@@ -27,6 +31,9 @@ public class JwtService {
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationSeconds = expirationSeconds;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
     }
 
     public String generateToken(AppUserDetails user) {
@@ -35,43 +42,32 @@ public class JwtService {
                 .setSubject(user.getUsername())
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(expirationSeconds)))
-                .addClaims(Map.of(
-                        "role", user.getRole().name(),
-                        "studentId", user.getStudentId(),
-                        "userId", user.getUserId()
-                ))
+                // claim() skips null values, so admins without a student record still get a token
+                .claim("role", user.getRole().name())
+                .claim("studentId", user.getStudentId())
+                .claim("userId", user.getUserId())
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, AppUserDetails userDetails) {
-        String username = extractClaim(token, Claims::getSubject);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Long extractStudentId(String token) {
-        return extractClaim(token, claims -> claims.get("studentId", Long.class));
-    }
-
-    public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
-    }
-
-    private boolean isTokenExpired(String token) {
-        Date expiration = extractClaim(token, Claims::getExpiration);
-        return expiration.before(new Date());
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return resolver.apply(claims);
+    /**
+     * Parses the token, checks its signature and expiry, and returns its claims.
+     *
+     * @param token compact JWS string
+     * @return the verified claims
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        String role = claims.get("role", String.class);
+        Date issuedAt = claims.getIssuedAt();
+        return new VerifiedToken(
+                claims.getSubject(),
+                role != null ? Role.valueOf(role) : null,
+                claims.get("studentId", Long.class),
+                claims.get("userId", Long.class),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
     }
 }
@@ -0,0 +1,228 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs CPU-bound BCrypt work on a dedicated, bounded pool so that hashing bursts cannot
+ * occupy every servlet thread.
+ * <p>
+ * The pool has one worker per core by default and a fixed-size queue. Work submitted while the
+ * queue is full is rejected with {@link PasswordHashingBusyException} (503 + {@code Retry-After}).
+ * Bulk imports hash on a second, smaller pool, so a large import never queues ahead of logins.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService implements MeterBinder, DisposableBean {
+
+    private static final String METRIC_PREFIX = "app.password.hashing";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final long retryAfterSeconds;
+
+    private volatile Timer encodeTimer;
+    private volatile Timer verifyTimer;
+    private volatile Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${app.security.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${app.security.password-hashing.bulk-threads:0}") int bulkThreads,
+            @Value("${app.security.password-hashing.bulk-queue-capacity:8}") int bulkQueueCapacity
+    ) {
+        this(passwordEncoder,
+                newPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                        queueCapacity, "password-hash-"),
+                newPool(bulkThreads > 0 ? bulkThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                        bulkQueueCapacity, "password-hash-bulk-"),
+                retryAfterSeconds);
+    }
+
+    PasswordHashingService(PasswordEncoder passwordEncoder, ThreadPoolExecutor executor,
+                           ThreadPoolExecutor bulkExecutor, long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.bulkExecutor = bulkExecutor;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    static ThreadPoolExecutor newPool(int threads, int queueCapacity, String threadNamePrefix) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory(threadNamePrefix),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Hashes a raw password on the hashing pool.
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(executor, () -> {
+            long start = System.nanoTime();
+            try {
+                return passwordEncoder.encode(rawPassword);
+            } finally {
+                record(encodeTimer, start);
+            }
+        });
+    }
+
+    /**
+     * Runs a task whose cost is dominated by a password check (for example an
+     * {@code AuthenticationManager.authenticate} call) on the hashing pool.
+     */
+    public <T> CompletableFuture<T> verify(Supplier<T> task) {
+        return submit(executor, () -> {
+            long start = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                record(verifyTimer, start);
+            }
+        });
+    }
+
+    /**
+     * Hashes many passwords in parallel on the bulk pool, one task per bulk worker, and waits for the
+     * result. The returned list is in the same order as the input. If any chunk is rejected or fails,
+     * the chunks already submitted are cancelled and the original exception is rethrown, unwrapped from
+     * the {@link CompletionException} that carried it out of the pool.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        if (rawPasswords.isEmpty()) {
+            return List.of();
+        }
+        int workers = Math.min(getBulkPoolSize(), rawPasswords.size());
+        int chunkSize = (rawPasswords.size() + workers - 1) / workers;
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>(workers);
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        try {
+            for (int from = 0; from < rawPasswords.size(); from += chunkSize) {
+                List<String> chunk = rawPasswords.subList(from, Math.min(from + chunkSize, rawPasswords.size()));
+                chunks.add(submit(bulkExecutor, () -> encodeChunk(chunk, abandoned)));
+            }
+            chunks.forEach(chunk -> encoded.addAll(chunk.join()));
+        } catch (RuntimeException e) {
+            // Queued chunks are skipped and running ones stop at the next password
+            abandoned.set(true);
+            chunks.forEach(chunk -> chunk.cancel(false));
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e instanceof CompletionException && e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+        return encoded;
+    }
+
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    public int getBulkPoolSize() {
+        return bulkExecutor.getCorePoolSize();
+    }
+
+    private List<String> encodeChunk(List<String> rawPasswords, AtomicBoolean abandoned) {
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            if (abandoned.get()) {
+                throw new CancellationException("Bulk hashing abandoned");
+            }
+            long start = System.nanoTime();
+            try {
+                encoded.add(passwordEncoder.encode(rawPassword));
+            } finally {
+                record(encodeTimer, start);
+            }
+        }
+        return encoded;
+    }
+
+    private <T> CompletableFuture<T> submit(ThreadPoolExecutor pool, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            log.debug("Password hashing queue full ({} waiting)", pool.getQueue().size());
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+    }
+
+    private void record(Timer timer, long startNanos) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "encode")
+                .register(registry);
+        verifyTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "verify")
+                .register(registry);
+        rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Hashing tasks rejected because the queue was full")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently hashing")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".bulk.queue.depth", bulkExecutor, e -> e.getQueue().size())
+                .description("Bulk import hashing chunks waiting for a worker")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".bulk.active", bulkExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Bulk import workers currently hashing")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        bulkExecutor.shutdown();
+    }
+}
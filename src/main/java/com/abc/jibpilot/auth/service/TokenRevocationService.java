@@ -0,0 +1,75 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.model.VerifiedToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory record of users whose outstanding tokens must no longer be accepted.
+ * <p>
+ * Each entry holds a cut-off instant: any token for that user issued at or before it is rejected.
+ * Entries are dropped once every token they could reject has expired anyway, so the map only holds
+ * accounts revoked within the last token lifetime.
+ * <p>
+ * Inside a transaction the cut-off is taken when it commits, so tokens issued while the change was still
+ * in flight are covered as well, and a rolled-back change revokes nothing.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final ConcurrentMap<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final long expirationSeconds;
+
+    public TokenRevocationService(@Value("${app.security.jwt.expiration-seconds:3600}") long expirationSeconds) {
+        this.expirationSeconds = expirationSeconds;
+    }
+
+    /**
+     * Rejects every token issued to the given user up to now, or up to the commit of the current
+     * transaction if there is one.
+     */
+    public void revokeAllTokens(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeNow(userId);
+                }
+            });
+        } else {
+            revokeNow(userId);
+        }
+    }
+
+    private void revokeNow(Long userId) {
+        Instant now = Instant.now();
+        revokedBefore.put(userId, now);
+        purgeExpired(now);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (revokedBefore.isEmpty() || token.userId() == null) {
+            return false;
+        }
+        Instant cutoff = revokedBefore.get(token.userId());
+        if (cutoff == null) {
+            return false;
+        }
+        // iat has second precision, so a token from the same second as the cut-off is treated as revoked
+        return token.issuedAt() == null || !token.issuedAt().isAfter(cutoff);
+    }
+
+    private void purgeExpired(Instant now) {
+        Instant oldestRelevant = now.minusSeconds(expirationSeconds);
+        revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(oldestRelevant));
+    }
+}
@@ -0,0 +1,31 @@
+package com.abc.jibpilot.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps how many requests may run a controller method at the same time.
+ * <p>
+ * Requests beyond {@link #maxConcurrent()} wait up to {@link #maxWaitMillis()} for a slot, with at most
+ * {@link #maxQueued()} of them waiting at once; anything else is rejected with {@code 503}. Methods that
+ * share a {@link #name()} share one bulkhead, configured by the first one seen.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * Bulkhead name, used as the {@code bulkhead} metric tag.
+     */
+    String name();
+
+    int maxConcurrent();
+
+    int maxQueued() default 2;
+
+    long maxWaitMillis() default 100;
+}
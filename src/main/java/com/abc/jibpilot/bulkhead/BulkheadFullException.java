@@ -0,0 +1,29 @@
+package com.abc.jibpilot.bulkhead;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when a {@link Bulkhead} has no free slot; rendered as 503 with a {@code Retry-After} header.
+ */
+public class BulkheadFullException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(String bulkheadName, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent '" + bulkheadName + "' requests, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,188 @@
+package com.abc.jibpilot.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces {@link Bulkhead} on controller methods.
+ * <p>
+ * Bulkheads are discovered from the handler mappings at startup, so their metrics exist before the first
+ * request. The slot is taken in {@code preHandle} and returned in {@code afterCompletion}, so it is held while the
+ * handler runs and its response is written. For async handlers it stays held across the async dispatch.
+ * <p>
+ * Publishes, tagged by {@code bulkhead}: {@code app.bulkhead.active}, {@code app.bulkhead.max},
+ * {@code app.bulkhead.saturation} (active / max), {@code app.bulkhead.queued} and
+ * {@code app.bulkhead.rejected}.
+ */
+@Slf4j
+@Component
+public class BulkheadInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+
+    private static final String HELD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".HELD";
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public BulkheadInterceptor(
+            @Value("${app.bulkhead.enabled:true}") boolean enabled,
+            @Value("${app.bulkhead.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)
+                || request.getAttribute(HELD_ATTRIBUTE) != null) {
+            return true;
+        }
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+
+        Compartment compartment = compartments.computeIfAbsent(bulkhead.name(), name -> register(bulkhead));
+        if (!compartment.tryEnter()) {
+            compartment.rejected.incrementAndGet();
+            log.debug("Bulkhead '{}' is full", compartment.name);
+            throw new BulkheadFullException(compartment.name, retryAfterSeconds);
+        }
+        request.setAttribute(HELD_ATTRIBUTE, compartment);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(HELD_ATTRIBUTE) instanceof Compartment compartment) {
+            request.removeAttribute(HELD_ATTRIBUTE);
+            compartment.leave();
+        }
+    }
+
+    /**
+     * Creates every declared bulkhead up front so its meters are published before it is first used.
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values().forEach(mapping ->
+                mapping.getHandlerMethods().values().forEach(handlerMethod -> {
+                    Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+                    if (bulkhead != null) {
+                        compartments.computeIfAbsent(bulkhead.name(), name -> register(bulkhead));
+                    }
+                }));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        compartments.values().forEach(compartment -> compartment.bindTo(registry));
+    }
+
+    private Compartment register(Bulkhead bulkhead) {
+        if (bulkhead.maxConcurrent() < 1 || bulkhead.maxQueued() < 0 || bulkhead.maxWaitMillis() < 0) {
+            throw new IllegalStateException("Invalid @Bulkhead configuration for '" + bulkhead.name() + "'");
+        }
+        Compartment compartment = new Compartment(bulkhead);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            compartment.bindTo(registry);
+        }
+        return compartment;
+    }
+
+    /**
+     * State of one named bulkhead.
+     */
+    private static final class Compartment {
+        private final String name;
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final long maxWaitMillis;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private Compartment(Bulkhead bulkhead) {
+            this.name = bulkhead.name();
+            this.maxConcurrent = bulkhead.maxConcurrent();
+            this.maxQueued = bulkhead.maxQueued();
+            this.maxWaitMillis = bulkhead.maxWaitMillis();
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        boolean tryEnter() throws InterruptedException {
+            // The timed form honours fairness; plain tryAcquire() would take a released slot ahead of waiters
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            if (maxWaitMillis == 0) {
+                return false;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                return permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void leave() {
+            permits.release();
+        }
+
+        int active() {
+            return maxConcurrent - permits.availablePermits();
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Gauge.builder("app.bulkhead.active", this, Compartment::active)
+                    .description("Requests currently inside the bulkhead")
+                    .tag("bulkhead", name)
+                    .register(registry);
+            Gauge.builder("app.bulkhead.max", this, compartment -> compartment.maxConcurrent)
+                    .description("Maximum concurrent requests allowed by the bulkhead")
+                    .tag("bulkhead", name)
+                    .register(registry);
+            Gauge.builder("app.bulkhead.saturation", this, compartment -> (double) compartment.active() / compartment.maxConcurrent)
+                    .description("Fraction of the bulkhead's slots in use")
+                    .tag("bulkhead", name)
+                    .register(registry);
+            Gauge.builder("app.bulkhead.queued", queued, AtomicInteger::get)
+                    .description("Requests waiting for a bulkhead slot")
+                    .tag("bulkhead", name)
+                    .register(registry);
+            FunctionCounter.builder("app.bulkhead.rejected", rejected, AtomicLong::get)
+                    .description("Requests rejected because the bulkhead and its wait queue were full")
+                    .tag("bulkhead", name)
+                    .register(registry);
+        }
+    }
+}
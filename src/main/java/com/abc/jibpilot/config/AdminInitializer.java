@@ -3,6 +3,8 @@ package com.abc.jibpilot.config;
 import com.abc.jibpilot.auth.entity.UserAccount;
 import com.abc.jibpilot.auth.model.Role;
 import com.abc.jibpilot.auth.repository.UserRepository;
+import com.abc.jibpilot.auth.service.AppUserDetailsService;
+import com.abc.jibpilot.auth.service.EmailIdentityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +12,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
 
 @Slf4j
 @Configuration
@@ -18,6 +21,8 @@ public class AdminInitializer {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AppUserDetailsService userDetailsService;
+    private final EmailIdentityService emailIdentityService;
 
     @Value("${app.admin.email:}")
     private String adminEmail;
@@ -35,12 +40,19 @@ public class AdminInitializer {
             if (userRepository.existsByEmail(adminEmail)) {
                 return;
             }
+            try {
+                emailIdentityService.claim(adminEmail, null);
+            } catch (ResponseStatusException ex) {
+                log.warn("Admin email {} is already used by a student; admin user not created", adminEmail);
+                return;
+            }
             UserAccount admin = UserAccount.builder()
                     .email(adminEmail)
                     .password(passwordEncoder.encode(adminPassword))
                     .role(Role.ADMIN)
                     .build();
             userRepository.save(admin);
+            userDetailsService.evict(adminEmail);
         };
     }
 }
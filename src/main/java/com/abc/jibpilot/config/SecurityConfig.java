@@ -32,6 +32,8 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Lists client IPs and user ids, so only admins may read it
+                        .requestMatchers("/actuator/rateLimitHeavyHitters/**").hasRole("ADMIN")
                         .requestMatchers(
                                 "/actuator/**",
                                 "/api/v1/auth/**",
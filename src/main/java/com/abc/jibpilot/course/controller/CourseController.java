@@ -1,9 +1,12 @@
 package com.abc.jibpilot.course.controller;
 
+import com.abc.jibpilot.bulkhead.Bulkhead;
 import com.abc.jibpilot.course.dto.CourseResponse;
 import com.abc.jibpilot.course.dto.CreateCourseRequest;
 import com.abc.jibpilot.course.dto.UpdateCourseRequest;
 import com.abc.jibpilot.course.service.CourseService;
+import com.abc.jibpilot.course.service.CourseSort;
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.service.StudentService;
 import jakarta.validation.Valid;
@@ -19,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -51,14 +55,18 @@ public class CourseController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','STUDENT')")
-    public ResponseEntity<CourseResponse> getCourse(@PathVariable Long id) {
-        return ResponseEntity.ok(courseService.getCourse(id));
+    public ResponseEntity<CourseResponse> getCourse(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "false") boolean countOnly) {
+        return ResponseEntity.ok(courseService.getCourse(id, countOnly));
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN','STUDENT')")
-    public ResponseEntity<List<CourseResponse>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<CursorPage<CourseResponse>> getCourses(@RequestParam(defaultValue = "id") String sort,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(defaultValue = "false") boolean countOnly) {
+        return ResponseEntity.ok(courseService.getCourses(CourseSort.fromParam(sort), cursor, limit, countOnly));
     }
 
     @PutMapping("/{id}")
@@ -77,6 +85,7 @@ public class CourseController {
 
     @GetMapping("/{id}/students")
     @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead(name = "course-roster", maxConcurrent = 4)
     public ResponseEntity<List<StudentResponse>> getStudentsForCourse(@PathVariable Long id) {
         return ResponseEntity.ok(studentService.getStudentsByCourse(id));
     }
@@ -1,12 +1,24 @@
 package com.abc.jibpilot.course.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Set;
 
+/**
+ * Course details. {@code studentIds} is omitted when only the enrollment count was requested, and
+ * {@code capacity} when the course has unlimited seats.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record CourseResponse(
         Long id,
         String code,
         String title,
         String description,
-        Set<Long> studentIds
+        Set<Long> studentIds,
+        long enrolledCount,
+        Integer capacity
 ) {
+    public CourseResponse(Long id, String code, String title, String description, Set<Long> studentIds) {
+        this(id, code, title, description, studentIds, studentIds.size(), null);
+    }
 }
@@ -1,6 +1,7 @@
 package com.abc.jibpilot.course.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 
 public record UpdateCourseRequest(
@@ -11,6 +12,13 @@ public record UpdateCourseRequest(
         String title,
 
         @Size(max = 1000, message = "Description must be at most 1000 characters")
-        String description
+        String description,
+
+        // Optional; null means unlimited seats
+        @PositiveOrZero(message = "Capacity must not be negative")
+        Integer capacity
 ) {
+    public UpdateCourseRequest(String code, String title, String description) {
+        this(code, title, description, null);
+    }
 }
@@ -13,6 +13,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -39,6 +40,19 @@ public class Course {
     @Column(length = 1000)
     private String description;
 
+    /**
+     * Seats in the course; {@code null} means unlimited.
+     */
+    private Integer capacity;
+
+    /**
+     * Seats taken. Changed only by the conditional updates in {@code CourseRepository} and never written through
+     * the entity, so a stale copy cannot overwrite concurrent reservations.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int enrolledCount;
+
     @Builder.Default
     @ManyToMany(mappedBy = "courses")
     private Set<Student> students = new HashSet<>();
@@ -0,0 +1,11 @@
+package com.abc.jibpilot.course.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CourseFullException extends RuntimeException {
+    public CourseFullException(Long id) {
+        super("Course is full: " + id);
+    }
+}
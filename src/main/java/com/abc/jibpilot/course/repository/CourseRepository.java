@@ -1,10 +1,78 @@
 package com.abc.jibpilot.course.repository;
 
 import com.abc.jibpilot.course.entity.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
     Optional<Course> findByCode(String code);
+
+    @Query("select c from Course c where c.id > :afterId order by c.id")
+    List<Course> findPageOrderById(@Param("afterId") long afterId, Limit limit);
+
+    @Query("""
+            select c from Course c
+            where c.code > :code or (c.code = :code and c.id > :afterId)
+            order by c.code, c.id
+            """)
+    List<Course> findPageOrderByCode(@Param("code") String code, @Param("afterId") long afterId, Limit limit);
+
+    // Aliases are quoted so the projection keys keep their case on every database.
+    @Query(value = """
+            select sc.course_id as "courseId", sc.student_id as "studentId"
+            from student_courses sc
+            where sc.course_id in (:courseIds)
+            """, nativeQuery = true)
+    List<CourseStudentId> findStudentIdsByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Takes a seat in the course if one is free, as one atomic conditional update, so concurrent reservations
+     * can never oversell and there is no read-modify-write to race on.
+     *
+     * @return 1 if a seat was taken, 0 if the course is full or does not exist
+     */
+    @Modifying
+    @Query(value = """
+            update courses set enrolled_count = enrolled_count + 1
+            where id = :courseId and (capacity is null or enrolled_count < capacity)
+            """, nativeQuery = true)
+    int reserveSeat(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = """
+            update courses set enrolled_count = enrolled_count - 1
+            where id in (:courseIds) and enrolled_count > 0
+            """, nativeQuery = true)
+    int releaseSeats(@Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Gives back the seat of every course the student is enrolled in, in one statement however many there are.
+     * Must run before the student's enrollments are deleted.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            update courses set enrolled_count = enrolled_count - 1
+            where id in (select course_id from student_courses where student_id = :studentId) and enrolled_count > 0
+            """, nativeQuery = true)
+    int releaseSeatsOfStudent(@Param("studentId") Long studentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from student_courses where course_id = :courseId", nativeQuery = true)
+    int deleteEnrollmentsByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Deletes the course row without loading it or its roster, then clears the persistence context.
+     *
+     * @return 1 if the course existed, otherwise 0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from courses where id = :id", nativeQuery = true)
+    int deleteCourseById(@Param("id") Long id);
 }
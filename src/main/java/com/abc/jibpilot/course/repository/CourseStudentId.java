@@ -0,0 +1,10 @@
+package com.abc.jibpilot.course.repository;
+
+/**
+ * One row of the {@code student_courses} join table, read without loading either entity.
+ */
+public interface CourseStudentId {
+    Long getCourseId();
+
+    Long getStudentId();
+}
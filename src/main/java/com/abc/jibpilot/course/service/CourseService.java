@@ -3,15 +3,14 @@ package com.abc.jibpilot.course.service;
 import com.abc.jibpilot.course.dto.CourseResponse;
 import com.abc.jibpilot.course.dto.CreateCourseRequest;
 import com.abc.jibpilot.course.dto.UpdateCourseRequest;
-
-import java.util.List;
+import com.abc.jibpilot.pagination.CursorPage;
 
 public interface CourseService {
     CourseResponse createCourse(CreateCourseRequest request);
 
-    CourseResponse getCourse(Long id);
+    CourseResponse getCourse(Long id, boolean countOnly);
 
-    List<CourseResponse> getAllCourses();
+    CursorPage<CourseResponse> getCourses(CourseSort sort, String cursor, Integer limit, boolean countOnly);
 
     CourseResponse updateCourse(Long id, UpdateCourseRequest request);
 
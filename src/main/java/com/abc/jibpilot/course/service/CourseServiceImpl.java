@@ -6,15 +6,22 @@ import com.abc.jibpilot.course.dto.UpdateCourseRequest;
 import com.abc.jibpilot.course.entity.Course;
 import com.abc.jibpilot.course.exception.CourseNotFoundException;
 import com.abc.jibpilot.course.repository.CourseRepository;
-import com.abc.jibpilot.student.entity.Student;
+import com.abc.jibpilot.course.repository.CourseStudentId;
+import com.abc.jibpilot.pagination.CursorPage;
+import com.abc.jibpilot.pagination.KeysetCursor;
+import com.abc.jibpilot.pagination.PageLimits;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.CONFLICT;
 
@@ -23,7 +30,11 @@ import static org.springframework.http.HttpStatus.CONFLICT;
 @Transactional
 public class CourseServiceImpl implements CourseService {
 
+    // Keeps the IN lists of the enrollment projections well under driver bind limits.
+    private static final int PROJECTION_BATCH_SIZE = 500;
+
     private final CourseRepository courseRepository;
+    private final PageLimits pageLimits;
 
     @Override
     public CourseResponse createCourse(CreateCourseRequest request) {
@@ -33,26 +44,43 @@ public class CourseServiceImpl implements CourseService {
                 .code(request.code())
                 .title(request.title())
                 .description(request.description())
+                .capacity(request.capacity())
                 .build();
 
-        return toResponse(courseRepository.save(course));
+        Course saved = courseRepository.save(course);
+        return toResponse(saved, Set.of());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public CourseResponse getCourse(Long id) {
-        return courseRepository.findById(id)
-                .map(this::toResponse)
+    public CourseResponse getCourse(Long id, boolean countOnly) {
+        Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new CourseNotFoundException(id));
+        return toResponses(List.of(course), countOnly).get(0);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CourseResponse> getAllCourses() {
-        return courseRepository.findAll()
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    public CursorPage<CourseResponse> getCourses(CourseSort sort, String cursor, Integer limit, boolean countOnly) {
+        KeysetCursor after = KeysetCursor.decode(cursor, sort.param());
+        int pageSize = pageLimits.resolve(limit);
+        // One extra row tells whether another page follows without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<Course> courses = switch (sort) {
+            case ID -> courseRepository.findPageOrderById(after.id(), fetch);
+            case CODE -> courseRepository.findPageOrderByCode(after.value(), after.id(), fetch);
+        };
+        boolean hasMore = courses.size() > pageSize;
+        List<Course> page = hasMore ? courses.subList(0, pageSize) : courses;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Course last = page.get(page.size() - 1);
+            String value = sort == CourseSort.CODE ? last.getCode() : "";
+            nextCursor = new KeysetCursor(sort.param(), last.getId(), value).encode();
+        }
+        return new CursorPage<>(toResponses(page, countOnly), nextCursor);
     }
 
     @Override
@@ -65,21 +93,19 @@ public class CourseServiceImpl implements CourseService {
         course.setCode(request.code());
         course.setTitle(request.title());
         course.setDescription(request.description());
+        course.setCapacity(request.capacity());
 
-        return toResponse(courseRepository.save(course));
+        Course saved = courseRepository.save(course);
+        return toResponses(List.of(saved), false).get(0);
     }
 
     @Override
     public void deleteCourse(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new CourseNotFoundException(id));
-
-        // Detach from students to keep the join table clean.
-        for (Student student : course.getStudents()) {
-            student.getCourses().remove(course);
+        // Two statements whatever the roster size; no student is loaded
+        courseRepository.deleteEnrollmentsByCourseId(id);
+        if (courseRepository.deleteCourseById(id) == 0) {
+            throw new CourseNotFoundException(id);
         }
-
-        courseRepository.delete(course);
     }
 
     private void ensureCodeIsUnique(String code, Long currentId) {
@@ -91,18 +117,62 @@ public class CourseServiceImpl implements CourseService {
         });
     }
 
-    private CourseResponse toResponse(Course course) {
-        Set<Long> studentIds = course.getStudents()
-                .stream()
-                .map(Student::getId)
-                .collect(Collectors.toSet());
+    /**
+     * Maps courses to responses. Counts come from the seat counter on the course row; student ids are read
+     * from the join table in bulk rather than by initializing each {@code Course.students} collection.
+     */
+    private List<CourseResponse> toResponses(List<Course> courses, boolean countOnly) {
+        if (countOnly) {
+            return courses.stream().map(this::toCountResponse).toList();
+        }
+        if (courses.isEmpty()) {
+            return List.of();
+        }
+        List<Long> courseIds = courses.stream().map(Course::getId).toList();
+
+        Map<Long, Set<Long>> studentIds = new HashMap<>();
+        for (List<Long> batch : batches(courseIds)) {
+            for (CourseStudentId row : courseRepository.findStudentIdsByCourseIds(batch)) {
+                studentIds.computeIfAbsent(row.getCourseId(), key -> new HashSet<>()).add(row.getStudentId());
+            }
+        }
+        return courses.stream()
+                .map(course -> toResponse(course, studentIds.getOrDefault(course.getId(), Set.of())))
+                .toList();
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        if (ids.size() <= PROJECTION_BATCH_SIZE) {
+            return List.of(ids);
+        }
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += PROJECTION_BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + PROJECTION_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+
+    private CourseResponse toResponse(Course course, Set<Long> studentIds) {
+        return new CourseResponse(
+                course.getId(),
+                course.getCode(),
+                course.getTitle(),
+                course.getDescription(),
+                studentIds,
+                studentIds.size(),
+                course.getCapacity()
+        );
+    }
 
+    private CourseResponse toCountResponse(Course course) {
         return new CourseResponse(
                 course.getId(),
                 course.getCode(),
                 course.getTitle(),
                 course.getDescription(),
-                studentIds
+                null,
+                course.getEnrolledCount(),
+                course.getCapacity()
         );
     }
 }
@@ -0,0 +1,32 @@
+package com.abc.jibpilot.course.service;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Orders supported by the course listing. Every order ends with the id so keyset pages are stable.
+ */
+public enum CourseSort {
+    ID("id"),
+    CODE("code");
+
+    private final String param;
+
+    CourseSort(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public static CourseSort fromParam(String param) {
+        for (CourseSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new ResponseStatusException(BAD_REQUEST, "Unsupported sort: " + param);
+    }
+}
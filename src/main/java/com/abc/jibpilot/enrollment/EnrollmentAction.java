@@ -0,0 +1,6 @@
+package com.abc.jibpilot.enrollment;
+
+public enum EnrollmentAction {
+    ENROLL,
+    DROP
+}
@@ -0,0 +1,407 @@
+package com.abc.jibpilot.enrollment;
+
+import com.abc.jibpilot.course.exception.CourseFullException;
+import com.abc.jibpilot.course.exception.CourseNotFoundException;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus.State;
+import com.abc.jibpilot.student.exception.StudentNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Optional write-behind mode for enroll and drop ({@code app.enrollment.write-behind.enabled}).
+ * <p>
+ * Requests are validated against the current rows, acknowledged with a request id and put on a bounded queue.
+ * One writer thread drains the queue in batches of up to {@code batch-size} commands, waiting at most
+ * {@code max-latency-ms} after the oldest one, and applies each batch in one transaction: the affected course
+ * rows are locked, the commands are replayed in order against the current enrollments and seat counts, and the
+ * net change is written with multi-row statements. Capacity is enforced at flush time, so a request accepted
+ * here can still be rejected; clients follow it through {@link #status(UUID)}.
+ * <p>
+ * Publishes {@code app.enrollment.write-behind.queue.size}, {@code app.enrollment.write-behind.lag} (age of the
+ * oldest command not yet written), and {@code app.enrollment.write-behind.applied} / {@code .rejected}.
+ */
+@Slf4j
+@Component
+public class EnrollmentWriteBehindBuffer implements MeterBinder, DisposableBean {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+    // Rows per multi-row statement; two bind parameters each
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String COURSE_SEATS_SQL =
+            "select capacity, enrolled_count from courses where id = :id";
+    private static final String STUDENT_EXISTS_SQL = "select count(*) from students where id = :id";
+    private static final String LOCK_COURSES_SQL =
+            "select id, capacity, enrolled_count from courses where id in (:ids) order by id for update";
+    private static final String SELECT_STUDENTS_SQL = "select id from students where id in (:ids)";
+    private static final String SELECT_ENROLLMENTS_SQL = """
+            select student_id, course_id from student_courses
+            where student_id in (:studentIds) and course_id in (:courseIds)
+            """;
+    private static final String UPDATE_SEATS_SQL = "update courses set enrolled_count = :taken where id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxLatencyNanos;
+    private final BlockingQueue<PendingCommand> queue;
+    private final Cache<UUID, EnrollmentRequestStatus> statuses;
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running;
+    // Enqueue time of the oldest command in the batch being written, 0 while idle
+    private volatile long inFlightSinceNanos;
+
+    public EnrollmentWriteBehindBuffer(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.enrollment.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.enrollment.write-behind.batch-size:200}") int batchSize,
+            @Value("${app.enrollment.write-behind.max-latency-ms:5}") long maxLatencyMillis,
+            @Value("${app.enrollment.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.enrollment.write-behind.status-ttl-seconds:600}") long statusTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLatencyMillis));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(statusTtlSeconds))
+                // Pending requests are at most the queue; the rest are finished outcomes kept for polling
+                .maximumSize(Math.max(10L * queueCapacity, 10_000L))
+                .build();
+        if (enabled) {
+            running = true;
+            writer = Thread.ofPlatform().name("enrollment-writer").daemon().start(this::drainLoop);
+        } else {
+            writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates and queues one enroll or drop.
+     *
+     * @throws StudentNotFoundException if the student does not exist
+     * @throws CourseNotFoundException if the course does not exist
+     * @throws CourseFullException if an enrollment targets a course that is already full
+     * @throws ResponseStatusException with 503 if the queue is full
+     */
+    public EnrollmentRequestStatus submit(EnrollmentAction action, Long studentId, Long courseId) {
+        if (!enabled) {
+            throw new IllegalStateException("Write-behind enrollment is disabled");
+        }
+        validate(action, studentId, courseId);
+
+        EnrollmentRequestStatus status = new EnrollmentRequestStatus(
+                UUID.randomUUID(), studentId, courseId, action, State.PENDING, null);
+        statuses.put(status.id(), status);
+        if (!running || !queue.offer(new PendingCommand(status, System.nanoTime()))) {
+            statuses.invalidate(status.id());
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Enrollment queue is full, please retry");
+        }
+        return status;
+    }
+
+    public Optional<EnrollmentRequestStatus> status(UUID id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.enrollment.write-behind.queue.size", queue, BlockingQueue::size)
+                .description("Enrollment commands waiting to be written")
+                .register(registry);
+        TimeGauge.builder("app.enrollment.write-behind.lag", this, TimeUnit.NANOSECONDS,
+                        EnrollmentWriteBehindBuffer::lagNanos)
+                .description("Age of the oldest enrollment command not yet written")
+                .register(registry);
+        FunctionCounter.builder("app.enrollment.write-behind.applied", applied, LongAdder::sum)
+                .description("Enrollment commands written")
+                .register(registry);
+        FunctionCounter.builder("app.enrollment.write-behind.rejected", rejected, LongAdder::sum)
+                .description("Enrollment commands rejected when written")
+                .register(registry);
+    }
+
+    /**
+     * Stops accepting commands and writes out everything already queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    long lagNanos() {
+        long oldest = inFlightSinceNanos;
+        if (oldest == 0) {
+            PendingCommand head = queue.peek();
+            if (head == null) {
+                return 0;
+            }
+            oldest = head.enqueuedNanos();
+        }
+        return Math.max(0, System.nanoTime() - oldest);
+    }
+
+    private void validate(EnrollmentAction action, Long studentId, Long courseId) {
+        Map<String, Long> course = Map.of("id", courseId);
+        List<Seats> seats = jdbcTemplate.query(COURSE_SEATS_SQL, course, (rs, rowNum) ->
+                new Seats(nullableInt(rs.getInt("capacity"), rs.wasNull()), rs.getInt("enrolled_count")));
+        if (seats.isEmpty()) {
+            throw new CourseNotFoundException(courseId);
+        }
+        Long students = jdbcTemplate.queryForObject(STUDENT_EXISTS_SQL, Map.of("id", studentId), Long.class);
+        if (students == null || students == 0) {
+            throw new StudentNotFoundException(studentId);
+        }
+        // Early answer for the common case; the authoritative check happens when the batch is written
+        if (action == EnrollmentAction.ENROLL && seats.get(0).isFull()) {
+            throw new CourseFullException(courseId);
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingCommand> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCommand first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                inFlightSinceNanos = first.enqueuedNanos();
+                batch.add(first);
+                collectBatch(batch, first.enqueuedNanos() + maxLatencyNanos);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                running = false;
+            } catch (RuntimeException ex) {
+                log.error("Failed to write {} enrollment commands", batch.size(), ex);
+                // Commands already settled by a one-by-one retry keep their outcome
+                batch.forEach(command -> complete(command, "Could not be applied, please retry"));
+            } finally {
+                batch.clear();
+                inFlightSinceNanos = 0;
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingCommand> batch, long deadlineNanos) throws InterruptedException {
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingCommand next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingCommand> batch) {
+        Map<UUID, String> rejections;
+        try {
+            rejections = transactionTemplate.execute(status -> apply(batch));
+        } catch (DataIntegrityViolationException ex) {
+            // A student was deleted between the existence check and the insert; isolate the culprit
+            if (batch.size() > 1) {
+                for (PendingCommand command : batch) {
+                    try {
+                        flush(List.of(command));
+                    } catch (RuntimeException retryEx) {
+                        log.error("Failed to write enrollment command {}", command.status().id(), retryEx);
+                        complete(command, "Could not be applied, please retry");
+                    }
+                }
+                return;
+            }
+            rejections = Map.of(batch.get(0).status().id(), "Student or course was removed");
+        }
+        for (PendingCommand command : batch) {
+            complete(command, rejections.get(command.status().id()));
+        }
+    }
+
+    /**
+     * Replays the batch in order against the current rows and writes the net change.
+     *
+     * @return rejection reasons by request id; requests not in the map were applied
+     */
+    private Map<UUID, String> apply(List<PendingCommand> batch) {
+        Set<Long> courseIds = new TreeSet<>();
+        Set<Long> studentIds = new TreeSet<>();
+        for (PendingCommand command : batch) {
+            courseIds.add(command.status().courseId());
+            studentIds.add(command.status().studentId());
+        }
+
+        // Locked in id order, like the synchronous path, so seat counts cannot change under us
+        Map<Long, Seats> seats = new HashMap<>();
+        jdbcTemplate.query(LOCK_COURSES_SQL, Map.of("ids", courseIds), (RowCallbackHandler) rs -> seats.put(
+                rs.getLong("id"),
+                new Seats(nullableInt(rs.getInt("capacity"), rs.wasNull()), rs.getInt("enrolled_count"))));
+        Set<Long> existingStudents = new HashSet<>(
+                jdbcTemplate.queryForList(SELECT_STUDENTS_SQL, Map.of("ids", studentIds), Long.class));
+        Set<Enrollment> before = new HashSet<>();
+        jdbcTemplate.query(SELECT_ENROLLMENTS_SQL, Map.of("studentIds", studentIds, "courseIds", courseIds),
+                (RowCallbackHandler) rs -> before.add(
+                        new Enrollment(rs.getLong("student_id"), rs.getLong("course_id"))));
+
+        Set<Enrollment> after = new HashSet<>(before);
+        Map<UUID, String> rejections = new HashMap<>();
+        for (PendingCommand command : batch) {
+            EnrollmentRequestStatus request = command.status();
+            Seats courseSeats = seats.get(request.courseId());
+            if (courseSeats == null) {
+                rejections.put(request.id(), "Course not found");
+                continue;
+            }
+            if (!existingStudents.contains(request.studentId())) {
+                rejections.put(request.id(), "Student not found");
+                continue;
+            }
+            Enrollment enrollment = new Enrollment(request.studentId(), request.courseId());
+            if (request.action() == EnrollmentAction.ENROLL) {
+                if (after.contains(enrollment)) {
+                    continue;
+                }
+                if (courseSeats.isFull()) {
+                    rejections.put(request.id(), "Course is full");
+                    continue;
+                }
+                after.add(enrollment);
+                courseSeats.taken++;
+            } else if (after.remove(enrollment) && courseSeats.taken > 0) {
+                courseSeats.taken--;
+            }
+        }
+
+        List<Enrollment> inserts = after.stream().filter(enrollment -> !before.contains(enrollment)).toList();
+        List<Enrollment> deletes = before.stream().filter(enrollment -> !after.contains(enrollment)).toList();
+        writeRows("insert into student_courses (student_id, course_id) values ", "(?, ?)", "", inserts);
+        writeRows("delete from student_courses where (student_id, course_id) in (", "(?, ?)", ")", deletes);
+
+        List<Map<String, Object>> seatUpdates = new ArrayList<>();
+        seats.forEach((courseId, courseSeats) -> {
+            if (courseSeats.taken != courseSeats.initiallyTaken) {
+                seatUpdates.add(Map.of("taken", courseSeats.taken, "id", courseId));
+            }
+        });
+        if (!seatUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SEATS_SQL, SqlParameterSourceUtils.createBatch(seatUpdates));
+        }
+        return rejections;
+    }
+
+    /**
+     * Writes enrollments with as few multi-row statements as possible.
+     */
+    private void writeRows(String prefix, String row, String suffix, List<Enrollment> enrollments) {
+        for (int from = 0; from < enrollments.size(); from += ROWS_PER_STATEMENT) {
+            List<Enrollment> chunk = enrollments.subList(from, Math.min(from + ROWS_PER_STATEMENT, enrollments.size()));
+            StringBuilder sql = new StringBuilder(prefix);
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(row);
+                args[2 * i] = chunk.get(i).studentId();
+                args[2 * i + 1] = chunk.get(i).courseId();
+            }
+            sql.append(suffix);
+            jdbcTemplate.getJdbcTemplate().update(sql.toString(), args);
+        }
+    }
+
+    /**
+     * Records the outcome of a command that is still pending; an outcome once recorded is final.
+     */
+    private void complete(PendingCommand command, String rejection) {
+        EnrollmentRequestStatus request = command.status();
+        EnrollmentRequestStatus current = statuses.getIfPresent(request.id());
+        if (current != null && current.state() != State.PENDING) {
+            return;
+        }
+        if (rejection == null) {
+            applied.increment();
+            statuses.put(request.id(), request.withOutcome(State.APPLIED, null));
+        } else {
+            rejected.increment();
+            statuses.put(request.id(), request.withOutcome(State.REJECTED, rejection));
+        }
+    }
+
+    private static Integer nullableInt(int value, boolean wasNull) {
+        return wasNull ? null : value;
+    }
+
+    private record PendingCommand(EnrollmentRequestStatus status, long enqueuedNanos) {
+    }
+
+    private record Enrollment(long studentId, long courseId) {
+    }
+
+    private static final class Seats {
+        private final Integer capacity;
+        private final int initiallyTaken;
+        private int taken;
+
+        private Seats(Integer capacity, int taken) {
+            this.capacity = capacity;
+            this.initiallyTaken = taken;
+            this.taken = taken;
+        }
+
+        boolean isFull() {
+            return capacity != null && taken >= capacity;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.abc.jibpilot.enrollment.dto;
+
+import com.abc.jibpilot.enrollment.EnrollmentAction;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * State of an enrollment request accepted by the write-behind buffer. {@code reason} is set for rejected requests.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EnrollmentRequestStatus(
+        UUID id,
+        Long studentId,
+        Long courseId,
+        EnrollmentAction action,
+        State state,
+        String reason
+) {
+    public enum State {
+        PENDING,
+        APPLIED,
+        REJECTED
+    }
+
+    public EnrollmentRequestStatus withOutcome(State state, String reason) {
+        return new EnrollmentRequestStatus(id, studentId, courseId, action, state, reason);
+    }
+}
@@ -0,0 +1,12 @@
+package com.abc.jibpilot.pagination;
+
+import java.util.List;
+
+/**
+ * One keyset page. {@code nextCursor} is opaque to clients and {@code null} on the last page.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,60 @@
+package com.abc.jibpilot.pagination;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Position after the last row of a page: the sort it was issued for, the sort key of that row and its id as a
+ * tie-breaker. Encoded as URL-safe base64 so clients treat it as an opaque token.
+ */
+public record KeysetCursor(String sort, long id, String value) {
+
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static KeysetCursor first(String sort) {
+        return new KeysetCursor(sort, 0L, "");
+    }
+
+    public String encode() {
+        String raw = VERSION + ':' + sort + ':' + id + ':' + value;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor issued for {@code expectedSort}; a missing cursor starts from the first row.
+     */
+    public static KeysetCursor decode(String cursor, String expectedSort) {
+        if (cursor == null || cursor.isBlank()) {
+            return first(expectedSort);
+        }
+        String raw;
+        try {
+            raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw invalid();
+        }
+        // The value goes last so it may itself contain ':'
+        String[] parts = raw.split(":", 4);
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw invalid();
+        }
+        if (!parts[1].equals(expectedSort)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Cursor was issued for a different sort");
+        }
+        try {
+            return new KeysetCursor(parts[1], Long.parseLong(parts[2]), parts[3]);
+        } catch (NumberFormatException ex) {
+            throw invalid();
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(BAD_REQUEST, "Invalid cursor");
+    }
+}
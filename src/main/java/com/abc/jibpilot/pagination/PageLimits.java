@@ -0,0 +1,33 @@
+package com.abc.jibpilot.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Resolves the requested page size against the configured default and cap.
+ */
+@Component
+public class PageLimits {
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public PageLimits(@Value("${app.pagination.default-limit:50}") int defaultLimit,
+                      @Value("${app.pagination.max-limit:200}") int maxLimit) {
+        this.defaultLimit = Math.max(1, Math.min(defaultLimit, maxLimit));
+        this.maxLimit = Math.max(1, maxLimit);
+    }
+
+    public int resolve(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1) {
+            throw new ResponseStatusException(BAD_REQUEST, "limit must be at least 1");
+        }
+        return Math.min(requested, maxLimit);
+    }
+}
@@ -0,0 +1,94 @@
+package com.abc.jibpilot.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adjusted by additive increase / multiplicative decrease.
+ * <p>
+ * Every completed request is a sample. A request that was slower than the latency threshold or failed
+ * with a server error shrinks the limit by the backoff ratio; a healthy request while the limit is
+ * actually being used (at least half of it in flight) grows it by one. The limit therefore follows what
+ * the database can currently absorb: it drops quickly in a brownout and recovers gradually afterwards.
+ */
+final class AimdConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Only written under the monitor; read without it on the acquire path
+    private volatile double limit;
+
+    AimdConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMillis) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Takes a slot if the current limit allows it.
+     *
+     * @return {@code true} if the caller may proceed and must later call {@link #release}
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot and feeds the request's outcome into the limit.
+     *
+     * @param latencyNanos time the request held its slot
+     * @param failed whether the request ended in a server error
+     */
+    void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns a slot for a request that is slow by design, so only a server error feeds into the limit.
+     *
+     * @param failed whether the request ended in a server error
+     */
+    void releaseUnsampled(boolean failed) {
+        inFlight.decrementAndGet();
+        if (failed) {
+            synchronized (this) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            }
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
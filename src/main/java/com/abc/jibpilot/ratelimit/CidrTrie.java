@@ -0,0 +1,88 @@
+package com.abc.jibpilot.ratelimit;
+
+import java.util.Arrays;
+
+/**
+ * Binary prefix trie over address bits, stored in flat arrays.
+ * <p>
+ * Each inserted CIDR marks the node reached after its prefix bits as terminal. A lookup walks the bits
+ * of an address most significant first and matches as soon as it passes a terminal node, so a check
+ * costs at most one array step per prefix bit and never allocates. Callers feed bits through
+ * {@link #feed(int, int, int)} while they parse, carrying the returned state between calls.
+ */
+final class CidrTrie {
+
+    /**
+     * Walk state: the address is inside one of the CIDRs.
+     */
+    static final int MATCHED = -1;
+    /**
+     * Walk state: the address cannot be inside any of the CIDRs.
+     */
+    static final int NO_MATCH = -2;
+    static final int ROOT = 0;
+
+    private static final int ABSENT = 0;
+
+    // children[2 * node + bit]; node 0 is the root, so 0 doubles as "no child"
+    private int[] children = new int[64];
+    private boolean[] terminal = new boolean[32];
+    private int nodeCount = 1;
+
+    /**
+     * @param address network address bytes, most significant first
+     * @param prefixLength number of leading bits that must match
+     */
+    void insert(byte[] address, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > address.length * 8) {
+            throw new IllegalArgumentException("Invalid prefix length " + prefixLength);
+        }
+        int node = ROOT;
+        for (int i = 0; i < prefixLength; i++) {
+            int bit = (address[i >>> 3] >>> (7 - (i & 7))) & 1;
+            int slot = 2 * node + bit;
+            if (children[slot] == ABSENT) {
+                children[slot] = newNode();
+            }
+            node = children[slot];
+        }
+        terminal[node] = true;
+    }
+
+    boolean isEmpty() {
+        return nodeCount == 1 && !terminal[ROOT];
+    }
+
+    /**
+     * Advances a walk by the low {@code bitCount} bits of {@code value}, most significant first.
+     *
+     * @param state {@link #ROOT} to start, or the state returned by the previous call
+     * @return the next node, or {@link #MATCHED} / {@link #NO_MATCH} once the outcome is known
+     */
+    int feed(int state, int value, int bitCount) {
+        int node = state;
+        for (int i = bitCount - 1; i >= 0 && node >= 0; i--) {
+            if (terminal[node]) {
+                return MATCHED;
+            }
+            int child = children[2 * node + ((value >>> i) & 1)];
+            node = child == ABSENT ? NO_MATCH : child;
+        }
+        return node;
+    }
+
+    /**
+     * Final outcome of a walk that consumed every address bit.
+     */
+    boolean matched(int state) {
+        return state == MATCHED || (state >= 0 && terminal[state]);
+    }
+
+    private int newNode() {
+        if (nodeCount == terminal.length) {
+            terminal = Arrays.copyOf(terminal, nodeCount * 2);
+            children = Arrays.copyOf(children, nodeCount * 4);
+        }
+        return nodeCount++;
+    }
+}
@@ -0,0 +1,222 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.abc.jibpilot.ratelimit.dto.RateLimitErrorResponse;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load when the application cannot keep up, independently of per-client quotas.
+ * <p>
+ * Each request holds a slot of an {@link AimdConcurrencyLimit} for as long as it runs (including async
+ * processing). When every slot is taken the request is rejected at once with {@code 503} instead of
+ * queueing on a Tomcat thread behind a slow database, so latency stays bounded during a brownout.
+ * Health checks are never shed, so orchestrators keep seeing the instance.
+ * <p>
+ * Routes that are slow by design (export, bulk registration, BCrypt-bound login and registration) are listed
+ * in {@code app.concurrency-limit.latency-exempt} as {@code METHOD /path} entries ({@code *} matches any
+ * method). They still hold a slot and a 5xx still shrinks the limit, but their latency is not sampled.
+ * <p>
+ * Runs ahead of the security chain so rejected requests cost no authentication work. Publishes
+ * {@code app.concurrency.limit}, {@code app.concurrency.in-flight} and {@code app.concurrency.rejected}.
+ */
+@Slf4j
+@Component
+@Order(ConcurrencyLimitingFilter.ORDER)
+public class ConcurrencyLimitingFilter extends OncePerRequestFilter implements MeterBinder {
+
+    /**
+     * Just ahead of Spring Security's filter chain, which is registered at -100.
+     */
+    static final int ORDER = -110;
+
+    private static final String HEALTH_PATH = "/actuator/health";
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final boolean enabled;
+    private final AimdConcurrencyLimit limit;
+    private final List<Route> latencyExemptRoutes;
+    private final JsonMapper jsonMapper;
+
+    private volatile Counter rejectedCounter;
+
+    public ConcurrencyLimitingFilter(
+            @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${app.concurrency-limit.initial-limit:50}") int initialLimit,
+            @Value("${app.concurrency-limit.min-limit:10}") int minLimit,
+            @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.concurrency-limit.latency-threshold-ms:500}") long latencyThresholdMillis,
+            @Value("${app.concurrency-limit.latency-exempt:}") String[] latencyExempt,
+            JsonMapper jsonMapper) {
+        this.enabled = enabled;
+        this.limit = new AimdConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMillis);
+        List<Route> routes = new ArrayList<>();
+        for (String entry : latencyExempt) {
+            if (!entry.isBlank()) {
+                routes.add(Route.parse(entry.trim()));
+            }
+        }
+        this.latencyExemptRoutes = List.copyOf(routes);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || uri.equals(HEALTH_PATH) || uri.startsWith(HEALTH_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Slot slot = new Slot(start, isLatencyExempt(request));
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // The work continues on another thread; hold the slot until it actually finishes
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(slot, response));
+            } else {
+                slot.release(failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private boolean isLatencyExempt(HttpServletRequest request) {
+        for (Route route : latencyExemptRoutes) {
+            if (route.matches(request.getMethod(), request.getRequestURI())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+        jsonMapper.writeValue(response.getWriter(), RateLimitErrorResponse.serviceUnavailable(RETRY_AFTER_SECONDS));
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    int getInFlight() {
+        return limit.getInFlight();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.concurrency.limit", limit, AimdConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("app.concurrency.in-flight", limit, AimdConcurrencyLimit::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .register(registry);
+        rejectedCounter = Counter.builder("app.concurrency.rejected")
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .register(registry);
+    }
+
+    /**
+     * One acquired slot; released exactly once even if several completion callbacks fire.
+     */
+    private final class Slot {
+        private final long start;
+        private final boolean latencyExempt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(long start, boolean latencyExempt) {
+            this.start = start;
+            this.latencyExempt = latencyExempt;
+        }
+
+        void release(boolean failed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (latencyExempt) {
+                limit.releaseUnsampled(failed);
+            } else {
+                limit.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * Exact method and path; a {@code null} method matches any.
+     */
+    private record Route(String method, String path) {
+
+        static Route parse(String entry) {
+            int space = entry.indexOf(' ');
+            if (space <= 0) {
+                throw new IllegalArgumentException("Invalid latency-exempt route '" + entry
+                        + "', expected 'METHOD /path'");
+            }
+            String method = entry.substring(0, space).trim();
+            return new Route("*".equals(method) ? null : method, entry.substring(space + 1).trim());
+        }
+
+        boolean matches(String requestMethod, String requestUri) {
+            return path.equals(requestUri) && (method == null || method.equalsIgnoreCase(requestMethod));
+        }
+    }
+
+    private record ReleaseOnCompletion(Slot slot, HttpServletResponse response) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            slot.release(response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            slot.release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            slot.release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register so a redispatched request is still tracked
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.abc.jibpilot.ratelimit.HeavyHitterTracker.KeyCount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size frequency estimator: a count-min sketch plus the {@code k} keys with the highest estimates.
+ * <p>
+ * The sketch never under-counts and over-counts by at most about {@code 2 * total / width} with high
+ * probability, which is plenty to single out the handful of keys responsible for most of the traffic.
+ * Memory is {@code depth * width} counters plus {@code k} entries, however many distinct keys are seen.
+ * <p>
+ * Recording a key that is already in the top set, or that cannot enter it, takes no lock and does not
+ * allocate; only promotions into the top set are serialized.
+ */
+final class CountMinTopK {
+
+    private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F, 0x165667B1, 0xD3A2646C};
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final int k;
+    private final AtomicLongArray counters;
+    private final LongAdder total = new LongAdder();
+    private final Map<String, AtomicLong> top;
+
+    // Smallest estimate in a full top set; a key must beat it to get in
+    private volatile long floor;
+
+    CountMinTopK(int depth, int width, int k) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + SEEDS.length);
+        }
+        if (width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch width must be a power of two");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.mask = width - 1;
+        this.k = k;
+        this.counters = new AtomicLongArray(depth * width);
+        this.top = new ConcurrentHashMap<>(k * 2);
+    }
+
+    /**
+     * Adds {@code amount} to {@code key} and returns its new estimated count.
+     */
+    long add(String key, long amount) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(row * width + index(hash, row), amount));
+        }
+        total.add(amount);
+        offer(key, estimate);
+        return estimate;
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    /**
+     * Current top keys, highest estimate first.
+     */
+    List<KeyCount> top() {
+        List<KeyCount> snapshot = new ArrayList<>(top.size());
+        top.forEach((key, count) -> snapshot.add(new KeyCount(key, count.get())));
+        snapshot.sort(Comparator.comparingLong(KeyCount::count).reversed());
+        return snapshot;
+    }
+
+    private void offer(String key, long estimate) {
+        AtomicLong tracked = top.get(key);
+        if (tracked != null) {
+            tracked.accumulateAndGet(estimate, Math::max);
+            return;
+        }
+        if (top.size() >= k && estimate <= floor) {
+            return;
+        }
+        synchronized (this) {
+            if (top.containsKey(key)) {
+                return;
+            }
+            if (top.size() >= k) {
+                String weakest = null;
+                long weakestCount = Long.MAX_VALUE;
+                for (Map.Entry<String, AtomicLong> entry : top.entrySet()) {
+                    long count = entry.getValue().get();
+                    if (count < weakestCount) {
+                        weakest = entry.getKey();
+                        weakestCount = count;
+                    }
+                }
+                if (estimate <= weakestCount) {
+                    floor = weakestCount;
+                    return;
+                }
+                top.remove(weakest);
+            }
+            top.put(key, new AtomicLong(estimate));
+            if (top.size() >= k) {
+                floor = top.values().stream().mapToLong(AtomicLong::get).min().orElse(0);
+            }
+        }
+    }
+
+    private int index(int hash, int row) {
+        int mixed = hash * SEEDS[row];
+        return (mixed ^ (mixed >>> 15)) & mask;
+    }
+}
@@ -0,0 +1,11 @@
+package com.abc.jibpilot.ratelimit;
+
+/**
+ * Rate limit tier an incoming request falls into.
+ */
+enum EndpointCategory {
+    AUTH,
+    PUBLIC,
+    AUTHENTICATED,
+    NONE
+}
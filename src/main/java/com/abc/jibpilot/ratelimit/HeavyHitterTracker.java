@@ -0,0 +1,209 @@
+package com.abc.jibpilot.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks which rate limit keys consume the most tokens and collect the most rejections, per endpoint
+ * category, in fixed memory.
+ * <p>
+ * Counts are kept for tumbling windows of {@code app.rate-limiting.heavy-hitters.window-seconds}. The
+ * window in progress and the last completed one are available through {@link #report()} (served by the
+ * {@code rateLimitHeavyHitters} actuator endpoint). Instead of a log line per rejected request, one
+ * summary with the top rejected keys is logged when a window with rejections closes. A background thread
+ * closes elapsed windows, so the summary is logged even when no further requests arrive.
+ */
+@Slf4j
+@Component
+public class HeavyHitterTracker implements MeterBinder, DisposableBean {
+
+    private static final long MAX_ROTATION_CHECK_MILLIS = 1000;
+
+    private final boolean enabled;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final int topK;
+    private final long windowMillis;
+    private final AtomicReference<Window> current = new AtomicReference<>();
+    private final Map<EndpointCategory, LongAdder> rejectedTotals = new EnumMap<>(EndpointCategory.class);
+    private final ScheduledExecutorService rotationExecutor;
+    private volatile Window previous;
+
+    public HeavyHitterTracker(
+            @Value("${app.rate-limiting.heavy-hitters.enabled:true}") boolean enabled,
+            @Value("${app.rate-limiting.heavy-hitters.top-k:20}") int topK,
+            @Value("${app.rate-limiting.heavy-hitters.window-seconds:60}") long windowSeconds,
+            @Value("${app.rate-limiting.heavy-hitters.sketch-depth:4}") int sketchDepth,
+            @Value("${app.rate-limiting.heavy-hitters.sketch-width:2048}") int sketchWidth) {
+        this.enabled = enabled;
+        this.topK = topK;
+        this.windowMillis = windowSeconds * 1000;
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        for (EndpointCategory category : EndpointCategory.values()) {
+            if (category != EndpointCategory.NONE) {
+                rejectedTotals.put(category, new LongAdder());
+            }
+        }
+        current.set(new Window(System.currentTimeMillis()));
+        if (enabled && windowMillis > 0) {
+            long checkMillis = Math.min(windowMillis, MAX_ROTATION_CHECK_MILLIS);
+            rotationExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("rate-limit-heavy-hitters-"));
+            rotationExecutor.scheduleWithFixedDelay(this::rotateQuietly, checkMillis, checkMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            rotationExecutor = null;
+        }
+    }
+
+    /**
+     * Records one rate limit decision.
+     *
+     * @param category endpoint category of the request
+     * @param key rate limit key
+     * @param cost tokens the request asked for
+     * @param consumed whether the request was admitted
+     */
+    void record(EndpointCategory category, String key, long cost, boolean consumed) {
+        if (!consumed) {
+            rejectedTotals.get(category).increment();
+        }
+        if (!enabled) {
+            return;
+        }
+        Window window = windowAt(System.currentTimeMillis());
+        CategoryCounters counters = window.counters.get(category);
+        counters.consumers.add(key, cost);
+        if (!consumed) {
+            counters.rejections.add(key, 1);
+        }
+    }
+
+    /**
+     * @return the window in progress and the last completed one, keyed {@code current} and {@code previous}
+     */
+    public Map<String, WindowReport> report() {
+        Map<String, WindowReport> report = new LinkedHashMap<>();
+        report.put("current", windowAt(System.currentTimeMillis()).report());
+        lastCompleted().ifPresent(last -> report.put("previous", last));
+        return report;
+    }
+
+    /**
+     * @return the last completed window, without closing the one in progress
+     */
+    Optional<WindowReport> lastCompleted() {
+        Window last = previous;
+        return last == null ? Optional.empty() : Optional.of(last.report());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejectedTotals.forEach((category, total) ->
+                FunctionCounter.builder("app.rate-limiting.rejected", total, LongAdder::sum)
+                        .description("Requests rejected by the rate limiter")
+                        .tag("category", category.name().toLowerCase())
+                        .register(registry));
+    }
+
+    @Override
+    public void destroy() {
+        if (rotationExecutor != null) {
+            rotationExecutor.shutdownNow();
+        }
+    }
+
+    private void rotateQuietly() {
+        try {
+            windowAt(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Could not close the rate limit heavy hitter window: {}", e.getMessage());
+        }
+    }
+
+    private Window windowAt(long now) {
+        Window window = current.get();
+        while (now >= window.startMillis + windowMillis) {
+            Window next = new Window(now);
+            if (current.compareAndSet(window, next)) {
+                previous = window;
+                logRejections(window);
+                return next;
+            }
+            window = current.get();
+        }
+        return window;
+    }
+
+    private void logRejections(Window window) {
+        window.counters.forEach((category, counters) -> {
+            long rejected = counters.rejections.total();
+            if (rejected > 0) {
+                log.warn("Rate limit rejected {} {} request(s) in the last window; top keys: {}",
+                        rejected, category.name().toLowerCase(), counters.rejections.top());
+            }
+        });
+    }
+
+    private final class Window {
+        private final long startMillis;
+        private final Map<EndpointCategory, CategoryCounters> counters = new EnumMap<>(EndpointCategory.class);
+
+        private Window(long startMillis) {
+            this.startMillis = startMillis;
+            for (EndpointCategory category : EndpointCategory.values()) {
+                if (category != EndpointCategory.NONE) {
+                    counters.put(category, new CategoryCounters(
+                            new CountMinTopK(sketchDepth, sketchWidth, topK),
+                            new CountMinTopK(sketchDepth, sketchWidth, topK)));
+                }
+            }
+        }
+
+        private WindowReport report() {
+            Map<String, CategoryReport> categories = new LinkedHashMap<>();
+            counters.forEach((category, c) -> categories.put(category.name().toLowerCase(), new CategoryReport(
+                    c.consumers.total(), c.rejections.total(), c.consumers.top(), c.rejections.top())));
+            return new WindowReport(Instant.ofEpochMilli(startMillis), Instant.ofEpochMilli(startMillis + windowMillis),
+                    categories);
+        }
+    }
+
+    private record CategoryCounters(CountMinTopK consumers, CountMinTopK rejections) {
+    }
+
+    public record WindowReport(Instant start, Instant end, Map<String, CategoryReport> categories) {
+    }
+
+    /**
+     * @param tokens tokens requested in the window (admitted or not)
+     * @param rejections requests rejected in the window
+     * @param topConsumers keys with the most tokens requested, estimated
+     * @param topRejected keys with the most rejections, estimated
+     */
+    public record CategoryReport(long tokens, long rejections, List<KeyCount> topConsumers,
+                                 List<KeyCount> topRejected) {
+    }
+
+    public record KeyCount(String key, long count) {
+    }
+}
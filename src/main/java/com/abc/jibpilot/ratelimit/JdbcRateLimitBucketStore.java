@@ -0,0 +1,314 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide {@link RateLimitBucketStore} backed by the application database.
+ * <p>
+ * Each key has one row in {@code rate_limit_buckets} holding the tokens left in the current one-minute
+ * window, so the configured limits apply to the whole cluster rather than to each replica. To keep the
+ * database off the hot path, a node reserves tokens in batches (at most a quarter of the capacity,
+ * capped by {@code app.rate-limiting.jdbc.batch-size}) and serves requests from that local allowance.
+ * When the allowance runs low the next batch is fetched asynchronously; only a fully drained allowance
+ * makes a request wait for the database. Once the shared bucket is empty the node rejects locally until
+ * the window ends.
+ * <p>
+ * A key seen for the first time in a window starts with one batch on credit, and its reservation runs in
+ * the background. The credit is settled against whatever the reservation grants, so a key can exceed its
+ * limit by at most one batch per node per window, and requests never wait on a key the node hasn't seen.
+ * <p>
+ * Reservations use {@code SELECT ... FOR UPDATE}, which works on PostgreSQL and H2. The table is created by
+ * the Flyway migration {@code V6__rate_limit_buckets}; rows of ended windows are purged every
+ * {@code app.rate-limiting.jdbc.purge-interval-seconds}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.rate-limiting.backend", havingValue = "jdbc")
+public class JdbcRateLimitBucketStore implements RateLimitBucketStore, MeterBinder, DisposableBean {
+
+    private static final String SELECT_FOR_UPDATE_SQL =
+            "select tokens, window_start from rate_limit_buckets where bucket_key = ? for update";
+    private static final String INSERT_SQL =
+            "insert into rate_limit_buckets (bucket_key, tokens, window_start) values (?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "update rate_limit_buckets set tokens = ?, window_start = ? where bucket_key = ?";
+    private static final String PURGE_SQL =
+            "delete from rate_limit_buckets where window_start < ?";
+
+    private static final long WINDOW_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final RateLimitingConfig rateLimitingConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Executor syncExecutor;
+    private final ScheduledExecutorService purgeExecutor;
+    private final Map<EndpointCategory, Cache<String, Allowance>> allowances = new EnumMap<>(EndpointCategory.class);
+
+    private volatile Timer reservationTimer;
+    private volatile Counter syncDroppedCounter;
+    private volatile Counter purgedCounter;
+
+    @Autowired
+    public JdbcRateLimitBucketStore(RateLimitingConfig rateLimitingConfig, DataSource dataSource) {
+        this(rateLimitingConfig, dataSource, Clock.systemUTC(), new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1000), new CustomizableThreadFactory("rate-limit-sync-")));
+    }
+
+    JdbcRateLimitBucketStore(RateLimitingConfig rateLimitingConfig, DataSource dataSource, Clock clock,
+                             Executor syncExecutor) {
+        this.rateLimitingConfig = rateLimitingConfig;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+        this.syncExecutor = syncExecutor;
+        for (EndpointCategory category : EndpointCategory.values()) {
+            if (category == EndpointCategory.NONE) {
+                continue;
+            }
+            // Allowances expire with the window they were reserved for, so idle keys are dropped quickly
+            allowances.put(category, Caffeine.newBuilder()
+                    .maximumSize(rateLimitingConfig.getMaxBuckets())
+                    .expireAfterAccess(Duration.ofMillis(WINDOW_MILLIS))
+                    .build());
+        }
+        long purgeInterval = rateLimitingConfig.getJdbcPurgeIntervalSeconds();
+        if (purgeInterval > 0) {
+            purgeExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("rate-limit-purge-"));
+            purgeExecutor.scheduleWithFixedDelay(this::purgeQuietly, purgeInterval, purgeInterval, TimeUnit.SECONDS);
+        } else {
+            purgeExecutor = null;
+        }
+    }
+
+    @Override
+    public RateLimitProbe tryConsume(EndpointCategory category, String key, long tokens) {
+        Cache<String, Allowance> cache = allowances.get(category);
+        if (cache == null) {
+            throw new IllegalArgumentException("Invalid category: " + category);
+        }
+        int capacity = rateLimitingConfig.getCapacity(category);
+        long batchSize = Math.max(tokens, batchSize(capacity));
+        String bucketKey = category.name() + ":" + key;
+        Allowance allowance = cache.get(key, k -> new Allowance());
+
+        synchronized (allowance) {
+            long now = clock.millis();
+            boolean windowEnded = allowance.expireIfWindowEnded(now);
+
+            if (windowEnded && !allowance.syncing) {
+                // Nothing reserved for this window yet: start on credit and reserve in the background
+                allowance.grantCredit(batchSize, now + WINDOW_MILLIS);
+                prefetch(allowance, bucketKey, capacity, batchSize);
+            }
+            if (allowance.tokens < tokens && !allowance.exhausted) {
+                // Nothing left locally: this request has to wait for the shared store
+                long requested = batchSize + allowance.credit;
+                allowance.apply(reserve(bucketKey, capacity, requested), requested);
+                now = clock.millis();
+            }
+            if (allowance.tokens < tokens) {
+                return RateLimitProbe.rejected(allowance.tokens, nanosUntil(allowance.windowEnd, now));
+            }
+
+            allowance.tokens -= tokens;
+            if (allowance.tokens < (batchSize + 1) / 2 && !allowance.exhausted && !allowance.syncing) {
+                prefetch(allowance, bucketKey, capacity, batchSize);
+            }
+            return RateLimitProbe.accepted(allowance.tokens, nanosUntil(allowance.windowEnd, now));
+        }
+    }
+
+    private void prefetch(Allowance allowance, String bucketKey, int capacity, long batchSize) {
+        allowance.syncing = true;
+        try {
+            syncExecutor.execute(() -> {
+                try {
+                    Reservation reservation = reserve(bucketKey, capacity, batchSize);
+                    synchronized (allowance) {
+                        allowance.apply(reservation, batchSize);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not reserve rate limit tokens for {}: {}", bucketKey, e.getMessage());
+                } finally {
+                    synchronized (allowance) {
+                        allowance.syncing = false;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            allowance.syncing = false;
+            if (syncDroppedCounter != null) {
+                syncDroppedCounter.increment();
+            }
+        }
+    }
+
+    private Reservation reserve(String bucketKey, int capacity, long requested) {
+        long start = System.nanoTime();
+        try {
+            return transactionTemplate.execute(status -> reserveInTransaction(bucketKey, capacity, requested));
+        } catch (DuplicateKeyException e) {
+            // Another node created the row between our select and insert; it exists now
+            return transactionTemplate.execute(status -> reserveInTransaction(bucketKey, capacity, requested));
+        } finally {
+            if (reservationTimer != null) {
+                reservationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Reservation reserveInTransaction(String bucketKey, int capacity, long requested) {
+        long now = clock.millis();
+        List<long[]> rows = jdbcTemplate.query(SELECT_FOR_UPDATE_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("tokens"), rs.getLong("window_start")}, bucketKey);
+
+        if (rows.isEmpty()) {
+            long granted = Math.min(requested, capacity);
+            jdbcTemplate.update(INSERT_SQL, bucketKey, capacity - granted, now);
+            return new Reservation(granted, now + WINDOW_MILLIS);
+        }
+
+        long available = rows.get(0)[0];
+        long windowStart = rows.get(0)[1];
+        if (now >= windowStart + WINDOW_MILLIS) {
+            windowStart += ((now - windowStart) / WINDOW_MILLIS) * WINDOW_MILLIS;
+            available = capacity;
+        }
+        long granted = Math.min(requested, available);
+        jdbcTemplate.update(UPDATE_SQL, available - granted, windowStart, bucketKey);
+        return new Reservation(granted, windowStart + WINDOW_MILLIS);
+    }
+
+    /**
+     * Deletes rows whose window ended more than one window ago. A missing row means a full bucket, just like
+     * an ended window, so this never changes a decision; the extra window allows for clock skew between nodes.
+     */
+    int purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, clock.millis() - 2 * WINDOW_MILLIS);
+        if (purgedCounter != null) {
+            purgedCounter.increment(purged);
+        }
+        return purged;
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purgeExpired();
+            log.debug("Purged {} expired rate limit buckets", purged);
+        } catch (RuntimeException e) {
+            log.warn("Could not purge expired rate limit buckets: {}", e.getMessage());
+        }
+    }
+
+    private long batchSize(int capacity) {
+        return Math.max(1, Math.min(rateLimitingConfig.getJdbcBatchSize(), capacity / 4));
+    }
+
+    private static long nanosUntil(long windowEnd, long now) {
+        long millis = windowEnd > now ? windowEnd - now : WINDOW_MILLIS;
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        reservationTimer = Timer.builder("app.rate-limiting.jdbc.reservations")
+                .description("Round trips reserving a batch of tokens from the shared bucket table")
+                .register(registry);
+        syncDroppedCounter = Counter.builder("app.rate-limiting.jdbc.sync.dropped")
+                .description("Asynchronous token prefetches dropped because the sync queue was full")
+                .register(registry);
+        purgedCounter = Counter.builder("app.rate-limiting.jdbc.purged")
+                .description("Rows of ended windows deleted from the shared bucket table")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (syncExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+        if (purgeExecutor != null) {
+            purgeExecutor.shutdown();
+        }
+    }
+
+    private record Reservation(long granted, long windowEnd) {
+    }
+
+    /**
+     * Tokens this node holds for one key. Guarded by its own monitor.
+     */
+    private static final class Allowance {
+        private long tokens;
+        private long windowEnd;
+        private long credit;
+        private boolean exhausted;
+        private boolean syncing;
+
+        boolean expireIfWindowEnded(long now) {
+            if (now < windowEnd) {
+                return false;
+            }
+            tokens = 0;
+            credit = 0;
+            exhausted = false;
+            return true;
+        }
+
+        void grantCredit(long batchSize, long estimatedWindowEnd) {
+            tokens = batchSize;
+            credit = batchSize;
+            windowEnd = estimatedWindowEnd;
+        }
+
+        void apply(Reservation reservation, long requested) {
+            if (credit > 0) {
+                // Pay back the tokens handed out before the shared bucket was consulted
+                tokens = Math.max(0, tokens + reservation.granted() - credit);
+                credit = 0;
+                windowEnd = reservation.windowEnd();
+            } else if (reservation.windowEnd() > windowEnd) {
+                // Tokens from an older window are void once the shared bucket has been reset
+                tokens = reservation.granted();
+                windowEnd = reservation.windowEnd();
+            } else {
+                tokens += reservation.granted();
+            }
+            exhausted = reservation.granted() < requested;
+        }
+    }
+}
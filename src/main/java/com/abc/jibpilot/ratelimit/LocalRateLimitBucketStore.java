@@ -0,0 +1,109 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.local.LocalBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Node-local {@link RateLimitBucketStore}: one token bucket per key and endpoint category, bounded in
+ * size and expiring idle entries.
+ * <p>
+ * Buckets refill their full capacity once per minute, so a bucket that has not been touched for at
+ * least that long is indistinguishable from a new one and can be dropped without loosening the limit.
+ * The idle expiry is therefore never shorter than the refill period. When the size bound is hit,
+ * the least valuable buckets are evicted first.
+ * <p>
+ * Live bucket counts and evictions are published as {@code cache.*} meters tagged
+ * {@code cache=rateLimitBuckets} and {@code category}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limiting.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBucketStore implements RateLimitBucketStore, MeterBinder {
+
+    private static final String CACHE_NAME = "rateLimitBuckets";
+    private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+
+    private final Map<EndpointCategory, Cache<String, LocalBucket>> buckets = new EnumMap<>(EndpointCategory.class);
+    // Built once so the per-request lookup does not allocate a capturing lambda
+    private final Map<EndpointCategory, Function<String, LocalBucket>> bucketFactories =
+            new EnumMap<>(EndpointCategory.class);
+
+    public LocalRateLimitBucketStore(RateLimitingConfig rateLimitingConfig) {
+        Duration idleExpiry = Duration.ofSeconds(rateLimitingConfig.getBucketIdleExpirySeconds());
+        if (idleExpiry.compareTo(REFILL_PERIOD) < 0) {
+            idleExpiry = REFILL_PERIOD;
+        }
+        for (EndpointCategory category : EndpointCategory.values()) {
+            if (category == EndpointCategory.NONE) {
+                continue;
+            }
+            buckets.put(category, Caffeine.newBuilder()
+                    .maximumSize(rateLimitingConfig.getMaxBuckets())
+                    .expireAfterAccess(idleExpiry)
+                    .recordStats()
+                    .build());
+            int capacity = rateLimitingConfig.getCapacity(category);
+            bucketFactories.put(category, key -> createBucket(capacity));
+        }
+    }
+
+    @Override
+    public RateLimitProbe tryConsume(EndpointCategory category, String key, long tokens) {
+        LocalBucket bucket = cacheFor(category).get(key, bucketFactories.get(category));
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(tokens);
+        return probe.isConsumed()
+                ? RateLimitProbe.accepted(probe.getRemainingTokens(), probe.getNanosToWaitForReset())
+                : RateLimitProbe.rejected(probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
+    }
+
+    /**
+     * Approximate number of live buckets across all categories.
+     */
+    public long estimatedSize() {
+        return buckets.values().stream().mapToLong(Cache::estimatedSize).sum();
+    }
+
+    /**
+     * Runs pending evictions now instead of waiting for the cache's own maintenance cycle.
+     */
+    public void cleanUp() {
+        buckets.values().forEach(Cache::cleanUp);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        buckets.forEach((category, cache) ->
+                CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, "category", category.name().toLowerCase()));
+    }
+
+    private Cache<String, LocalBucket> cacheFor(EndpointCategory category) {
+        Cache<String, LocalBucket> cache = buckets.get(category);
+        if (cache == null) {
+            throw new IllegalArgumentException("Invalid category: " + category);
+        }
+        return cache;
+    }
+
+    private LocalBucket createBucket(int capacity) {
+        Bandwidth limit = Bandwidth.builder()
+                .capacity(capacity)
+                .refillIntervally(capacity, REFILL_PERIOD)
+                .build();
+        return Bucket.builder()
+                .addLimit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.abc.jibpilot.ratelimit;
+
+/**
+ * Backend holding the token buckets used by {@link RateLimitingFilter}.
+ * <p>
+ * Selected with {@code app.rate-limiting.backend}: {@code local} (default) keeps buckets in memory on
+ * each node, {@code jdbc} shares them across replicas through the database.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Tries to take {@code tokens} from the bucket of the given key and category.
+     */
+    RateLimitProbe tryConsume(EndpointCategory category, String key, long tokens);
+}
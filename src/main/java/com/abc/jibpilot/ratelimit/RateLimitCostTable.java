@@ -0,0 +1,129 @@
+package com.abc.jibpilot.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token cost of a request, looked up by HTTP method and route pattern.
+ * <p>
+ * Rules come from {@code app.rate-limiting.costs}, a comma-separated list of
+ * {@code METHOD /path/pattern=cost} entries (method {@code *} matches any method). The first matching
+ * rule wins; requests that match no rule cost one token.
+ * <p>
+ * Each rule keeps the literal text before its first and after its last path variable, so most requests
+ * are ruled out with plain string comparisons and only candidates are parsed for pattern matching.
+ */
+@Slf4j
+@Component
+public class RateLimitCostTable {
+
+    static final int DEFAULT_COST = 1;
+    private static final String ANY_METHOD = "*";
+
+    private final List<Rule> rules;
+
+    public RateLimitCostTable(@Value("${app.rate-limiting.costs:}") String[] entries) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String entry : entries) {
+            if (!entry.isBlank()) {
+                parsed.add(parse(entry.trim()));
+            }
+        }
+        this.rules = List.copyOf(parsed);
+        if (!rules.isEmpty()) {
+            log.info("Loaded {} rate limit cost rule(s)", rules.size());
+        }
+    }
+
+    /**
+     * @param method HTTP method of the request
+     * @param requestUri request URI without query string
+     * @return tokens the request should consume
+     */
+    public int costOf(String method, String requestUri) {
+        if (rules.isEmpty()) {
+            return DEFAULT_COST;
+        }
+        PathContainer path = null;
+        for (Rule rule : rules) {
+            if ((rule.method() != null && !rule.method().equalsIgnoreCase(method)) || !rule.couldMatch(requestUri)) {
+                continue;
+            }
+            if (rule.literal()) {
+                return rule.cost();
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(requestUri);
+            }
+            if (rule.pattern().matches(path)) {
+                return rule.cost();
+            }
+        }
+        return DEFAULT_COST;
+    }
+
+    private static Rule parse(String entry) {
+        int space = entry.indexOf(' ');
+        int equals = entry.lastIndexOf('=');
+        if (space <= 0 || equals < space) {
+            throw new IllegalArgumentException("Invalid rate limit cost rule '" + entry
+                    + "', expected 'METHOD /path/pattern=cost'");
+        }
+        String method = entry.substring(0, space).trim();
+        String pattern = entry.substring(space + 1, equals).trim();
+        int cost;
+        try {
+            cost = Integer.parseInt(entry.substring(equals + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cost in rate limit cost rule '" + entry + "'", e);
+        }
+        if (cost < 1) {
+            throw new IllegalArgumentException("Rate limit cost must be at least 1 in rule '" + entry + "'");
+        }
+        int firstWildcard = indexOfWildcard(pattern);
+        boolean literal = firstWildcard < 0;
+        String prefix = literal ? pattern : pattern.substring(0, firstWildcard);
+        String suffix = literal ? "" : pattern.substring(lastWildcardEnd(pattern));
+        return new Rule(ANY_METHOD.equals(method) ? null : method,
+                PathPatternParser.defaultInstance.parse(pattern), cost, literal, prefix, suffix);
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{' || c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastWildcardEnd(String pattern) {
+        for (int i = pattern.length() - 1; i >= 0; i--) {
+            char c = pattern.charAt(i);
+            if (c == '}' || c == '*' || c == '?') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private record Rule(String method, PathPattern pattern, int cost, boolean literal, String prefix, String suffix) {
+
+        boolean couldMatch(String requestUri) {
+            if (literal) {
+                return requestUri.equals(prefix);
+            }
+            return requestUri.length() >= prefix.length() + suffix.length()
+                    && requestUri.startsWith(prefix)
+                    && requestUri.endsWith(suffix);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.abc.jibpilot.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decimal header values, cached so the common cases do not allocate a new string per response.
+ * <p>
+ * Counts up to {@value #MAX_CACHED_COUNT} come from a table built at class load. Reset timestamps are
+ * epoch seconds, which only change once a second, so a small table keyed by second holds the strings
+ * that are currently in use.
+ */
+final class RateLimitHeaderValues {
+
+    static final int MAX_CACHED_COUNT = 4096;
+    private static final int EPOCH_SLOTS = 128;
+
+    private static final String[] COUNTS = new String[MAX_CACHED_COUNT + 1];
+    private static final EpochSecond[] EPOCH_SECONDS = new EpochSecond[EPOCH_SLOTS];
+
+    static {
+        for (int i = 0; i <= MAX_CACHED_COUNT; i++) {
+            COUNTS[i] = Integer.toString(i);
+        }
+    }
+
+    private RateLimitHeaderValues() {
+    }
+
+    static String count(long value) {
+        return value >= 0 && value <= MAX_CACHED_COUNT ? COUNTS[(int) value] : Long.toString(value);
+    }
+
+    /**
+     * Whole seconds until a wait of {@code nanos} is over, rounded up so clients never retry too early.
+     */
+    static long ceilSeconds(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        return TimeUnit.SECONDS.toNanos(seconds) < nanos ? seconds + 1 : seconds;
+    }
+
+    /**
+     * @param nowMillis current wall-clock time
+     * @param nanosFromNow delay until the event
+     * @return the event's time as epoch seconds, rounded up
+     */
+    static String epochSeconds(long nowMillis, long nanosFromNow) {
+        long second = ceilSeconds(TimeUnit.MILLISECONDS.toNanos(nowMillis) + nanosFromNow);
+        int slot = (int) (second & (EPOCH_SLOTS - 1));
+        // Entries are immutable, so a racing writer can only replace a slot with another valid entry
+        EpochSecond cached = EPOCH_SECONDS[slot];
+        if (cached != null && cached.second() == second) {
+            return cached.text();
+        }
+        EpochSecond created = new EpochSecond(second, Long.toString(second));
+        EPOCH_SECONDS[slot] = created;
+        return created.text();
+    }
+
+    private record EpochSecond(long second, String text) {
+    }
+}
@@ -1,72 +1,160 @@
 package com.abc.jibpilot.ratelimit;
 
+import com.abc.jibpilot.auth.filter.BearerTokenResolver;
 import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.VerifiedToken;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
-
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class RateLimitKeyResolver {
 
+    static final String USER_KEY_PREFIX = "user:";
+    private static final int MAX_FORWARDED_HOPS = 16;
+    private static final long MAX_CACHED_USER_KEYS = 100_000;
+
+    private final BearerTokenResolver bearerTokenResolver;
+    private final TokenRevocationService tokenRevocationService;
+    private final TrustedProxies trustedProxies;
+    // user:{id} strings by user id, so active users get the same key instance on every request
+    private final Cache<Long, String> userKeys = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_USER_KEYS)
+            .build();
+
     /**
      * Resolves the rate limit key for a request.
-     * For authenticated users: returns user ID
-     * For unauthenticated users: returns IP address
+     * For authenticated users: returns {@code user:{userId}}, taken from the bearer token (verified once
+     * and shared with the JWT filter, since this filter runs before authentication) or the security context
+     * For unauthenticated users: returns the bare IP address, which can never start with {@code user:}
+     * <p>
+     * This runs on every request, so no new strings are built: the anonymous path reuses strings the request
+     * already holds, and user keys come from a bounded cache keyed by the id the token or principal carries.
      *
      * @param request HTTP request
      * @return Rate limit key (user ID or IP address)
      */
     public String resolveKey(HttpServletRequest request) {
         // Try to get authenticated user first
-        Optional<String> userId = getUserIdFromSecurityContext();
-        if (userId.isPresent()) {
-            return "user:" + userId.get();
+        Long userId = getUserIdFromToken(request);
+        if (userId == null) {
+            userId = getUserIdFromSecurityContext();
+        }
+        if (userId != null) {
+            return userKeys.get(userId, RateLimitKeyResolver::userKey);
         }
 
         // Fall back to IP address for unauthenticated requests
-        return "ip:" + getClientIpAddress(request);
+        return getClientIpAddress(request);
+    }
+
+    private static String userKey(Long userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+
+    /**
+     * Gets the user ID from a valid, unrevoked bearer token. Only the signed claims are used, so no
+     * database lookup happens before the request is admitted.
+     */
+    private Long getUserIdFromToken(HttpServletRequest request) {
+        VerifiedToken token = bearerTokenResolver.resolve(request).orElse(null);
+        if (token == null || token.userId() == null || tokenRevocationService.isRevoked(token)) {
+            return null;
+        }
+        return token.userId();
     }
 
     /**
      * Gets the user ID from Spring Security context if user is authenticated.
      */
-    private Optional<String> getUserIdFromSecurityContext() {
+    private Long getUserIdFromSecurityContext() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.isAuthenticated()
                     && authentication.getPrincipal() instanceof AppUserDetails userDetails) {
-                return Optional.of(String.valueOf(userDetails.getUserId()));
+                return userDetails.getUserId();
             }
         } catch (Exception e) {
             log.debug("Could not extract user ID from security context: {}", e.getMessage());
         }
-        return Optional.empty();
+        return null;
     }
 
     /**
      * Extracts the client IP address from the request.
-     * Handles proxies and load balancers by checking X-Forwarded-For header.
+     * <p>
+     * Forwarding headers are only believed when the direct peer is a trusted proxy. {@code X-Forwarded-For}
+     * is then walked from the right (the hop our own proxy appended) and the first hop that is not a
+     * trusted proxy is the client; anything further left was written by the client and may be forged.
+     * A malformed hop stops the walk at the last address that could be verified.
      */
     private String getClientIpAddress(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null) {
+            return "unknown";
+        }
+        if (trustedProxies.isEmpty() || trustedProxies.classify(remoteAddr) != TrustedProxies.Hop.TRUSTED) {
+            return remoteAddr;
+        }
+
         String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            // X-Forwarded-For can contain multiple IPs, take the first one
-            return xForwardedFor.split(",")[0].trim();
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return clientFromForwardedFor(xForwardedFor, remoteAddr);
         }
 
         String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
+        if (xRealIp != null && trustedProxies.classify(xRealIp) != TrustedProxies.Hop.INVALID) {
+            return trimmed(xRealIp, 0, xRealIp.length());
         }
 
         // Fall back to remote address
-        String remoteAddr = request.getRemoteAddr();
-        return remoteAddr != null ? remoteAddr : "unknown";
+        return remoteAddr;
+    }
+
+    private String clientFromForwardedFor(String xForwardedFor, String remoteAddr) {
+        int end = xForwardedFor.length();
+        int lastTrustedStart = -1;
+        int lastTrustedEnd = -1;
+        for (int hops = 0; hops < MAX_FORWARDED_HOPS && end >= 0; hops++) {
+            int comma = xForwardedFor.lastIndexOf(',', end - 1);
+            int start = comma + 1;
+            switch (trustedProxies.classify(xForwardedFor, start, end)) {
+                case UNTRUSTED -> {
+                    return trimmed(xForwardedFor, start, end);
+                }
+                case INVALID -> {
+                    return lastTrustedStart < 0 ? remoteAddr : trimmed(xForwardedFor, lastTrustedStart, lastTrustedEnd);
+                }
+                case TRUSTED -> {
+                    lastTrustedStart = start;
+                    lastTrustedEnd = end;
+                }
+            }
+            end = comma;
+        }
+        // Every hop was a trusted proxy (or the chain was too long to be genuine): use the leftmost one seen
+        return trimmed(xForwardedFor, lastTrustedStart, lastTrustedEnd);
     }
-}
 
+    /**
+     * Like {@code value.substring(start, end).trim()}, but returns {@code value} itself when the range
+     * already covers the whole, untrimmed string.
+     */
+    private static String trimmed(String value, int start, int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return start == 0 && end == value.length() ? value : value.substring(start, end);
+    }
+}
@@ -0,0 +1,37 @@
+package com.abc.jibpilot.ratelimit;
+
+/**
+ * Per-category limit with its header value rendered once, so the filter does not recompute either on
+ * every request.
+ */
+final class RateLimitPolicy {
+
+    private final EndpointCategory category;
+    private final int capacity;
+    private final String limitHeader;
+
+    RateLimitPolicy(EndpointCategory category, int capacity) {
+        this.category = category;
+        this.capacity = capacity;
+        this.limitHeader = String.valueOf(capacity);
+    }
+
+    EndpointCategory category() {
+        return category;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    String limitHeader() {
+        return limitHeader;
+    }
+
+    /**
+     * Caps a route's cost at the bucket capacity; a larger cost could never be satisfied.
+     */
+    int effectiveCost(int cost) {
+        return Math.min(cost, capacity);
+    }
+}
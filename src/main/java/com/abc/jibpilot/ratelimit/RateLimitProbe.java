@@ -0,0 +1,19 @@
+package com.abc.jibpilot.ratelimit;
+
+/**
+ * Outcome of a token consumption attempt against a {@link RateLimitBucketStore}.
+ *
+ * @param consumed         whether the tokens were taken
+ * @param remainingTokens  tokens left for the key after this attempt
+ * @param nanosUntilRefill time until the bucket is topped up again
+ */
+public record RateLimitProbe(boolean consumed, long remainingTokens, long nanosUntilRefill) {
+
+    public static RateLimitProbe accepted(long remainingTokens, long nanosUntilRefill) {
+        return new RateLimitProbe(true, remainingTokens, nanosUntilRefill);
+    }
+
+    public static RateLimitProbe rejected(long remainingTokens, long nanosUntilRefill) {
+        return new RateLimitProbe(false, remainingTokens, nanosUntilRefill);
+    }
+}
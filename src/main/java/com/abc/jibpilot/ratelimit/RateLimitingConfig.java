@@ -20,6 +20,18 @@ public class RateLimitingConfig {
     @Value("${app.rate-limiting.authenticated.requests-per-minute:1000}")
     private int authenticatedRequestsPerMinute;
 
+    @Value("${app.rate-limiting.bucket-store.max-size:100000}")
+    private long maxBuckets;
+
+    @Value("${app.rate-limiting.bucket-store.idle-expiry-seconds:60}")
+    private long bucketIdleExpirySeconds;
+
+    @Value("${app.rate-limiting.jdbc.batch-size:20}")
+    private int jdbcBatchSize;
+
+    @Value("${app.rate-limiting.jdbc.purge-interval-seconds:300}")
+    private long jdbcPurgeIntervalSeconds;
+
     public boolean isRateLimitingEnabled() {
         return rateLimitingEnabled;
     }
@@ -35,5 +47,39 @@ public class RateLimitingConfig {
     public int getAuthenticatedRequestsPerMinute() {
         return authenticatedRequestsPerMinute;
     }
+
+    /**
+     * Maximum number of buckets kept per endpoint category.
+     */
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public long getBucketIdleExpirySeconds() {
+        return bucketIdleExpirySeconds;
+    }
+
+    /**
+     * Upper bound on the tokens a node reserves from the shared store in one round trip.
+     */
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize;
+    }
+
+    /**
+     * How often rows of windows that have ended are deleted from the shared store; 0 disables the purge.
+     */
+    public long getJdbcPurgeIntervalSeconds() {
+        return jdbcPurgeIntervalSeconds;
+    }
+
+    int getCapacity(EndpointCategory category) {
+        return switch (category) {
+            case AUTH -> authRequestsPerMinute;
+            case PUBLIC -> publicRequestsPerMinute;
+            case AUTHENTICATED -> authenticatedRequestsPerMinute;
+            case NONE -> 0;
+        };
+    }
 }
 
@@ -2,9 +2,6 @@ package com.abc.jibpilot.ratelimit;
 
 import com.abc.jibpilot.ratelimit.dto.RateLimitErrorResponse;
 import com.fasterxml.jackson.databind.json.JsonMapper;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.local.LocalBucket;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -15,10 +12,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Slf4j
 @Component
@@ -27,19 +22,27 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     private final RateLimitingConfig rateLimitingConfig;
     private final RateLimitKeyResolver keyResolver;
     private final JsonMapper jsonMapper;
+    private final RateLimitBucketStore bucketStore;
+    private final RateLimitCostTable costTable;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final Map<EndpointCategory, RateLimitPolicy> policies = new EnumMap<>(EndpointCategory.class);
 
     public RateLimitingFilter(RateLimitingConfig rateLimitingConfig, RateLimitKeyResolver keyResolver, 
-                              JsonMapper jsonMapper) {
+                              JsonMapper jsonMapper, RateLimitBucketStore bucketStore,
+                              RateLimitCostTable costTable, HeavyHitterTracker heavyHitterTracker) {
         this.rateLimitingConfig = rateLimitingConfig;
         this.keyResolver = keyResolver;
         this.jsonMapper = jsonMapper;
+        this.bucketStore = bucketStore;
+        this.costTable = costTable;
+        this.heavyHitterTracker = heavyHitterTracker;
+        for (EndpointCategory category : EndpointCategory.values()) {
+            if (category != EndpointCategory.NONE) {
+                policies.put(category, new RateLimitPolicy(category, rateLimitingConfig.getCapacity(category)));
+            }
+        }
     }
 
-    // In-memory storage for rate limit buckets
-    private final ConcurrentMap<String, LocalBucket> authBuckets = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, LocalBucket> publicBuckets = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, LocalBucket> authenticatedBuckets = new ConcurrentHashMap<>();
-
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws IOException, jakarta.servlet.ServletException {
@@ -51,29 +54,30 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         }
 
         // Determine endpoint category
-        EndpointCategory category = determineEndpointCategory(request.getRequestURI());
+        String requestUri = request.getRequestURI();
+        EndpointCategory category = determineEndpointCategory(requestUri);
         if (category == EndpointCategory.NONE) {
             // No rate limiting for this endpoint
             filterChain.doFilter(request, response);
             return;
         }
+        RateLimitPolicy policy = policies.get(category);
 
         // Resolve rate limit key (IP or user ID)
         String key = keyResolver.resolveKey(request);
 
         try {
-            // Get or create bucket for this key
-            ConcurrentMap<String, LocalBucket> bucketMap = getBucketMap(category);
-            LocalBucket bucket = bucketMap.computeIfAbsent(key, k -> createBucketForCategory(category));
-
-            // Try to consume a token
-            if (bucket.tryConsume(1)) {
+            // Expensive routes cost more tokens; never more than a full bucket, or they could never pass
+            int cost = policy.effectiveCost(costTable.costOf(request.getMethod(), requestUri));
+            RateLimitProbe probe = bucketStore.tryConsume(category, key, cost);
+            heavyHitterTracker.record(category, key, cost, probe.consumed());
+            if (probe.consumed()) {
                 // Success - add rate limit headers and continue
-                addRateLimitHeaders(response, bucket, category);
+                addRateLimitHeaders(response, probe, policy, cost);
                 filterChain.doFilter(request, response);
             } else {
                 // Rate limit exceeded
-                handleRateLimitExceeded(response, bucket, category);
+                handleRateLimitExceeded(response, probe, policy, cost);
             }
         } catch (Exception e) {
             log.error("Error in rate limiting filter", e);
@@ -98,74 +102,32 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         return EndpointCategory.NONE;
     }
 
-    private ConcurrentMap<String, LocalBucket> getBucketMap(EndpointCategory category) {
-        return switch (category) {
-            case AUTH -> authBuckets;
-            case PUBLIC -> publicBuckets;
-            case AUTHENTICATED -> authenticatedBuckets;
-            case NONE -> throw new IllegalArgumentException("Invalid category: NONE");
-        };
+    private void addRateLimitHeaders(HttpServletResponse response, RateLimitProbe probe, RateLimitPolicy policy,
+                                     int cost) {
+        // Reset is when the bucket is full again, as reported by the bucket itself
+        response.setHeader("X-RateLimit-Limit", policy.limitHeader());
+        response.setHeader("X-RateLimit-Remaining", RateLimitHeaderValues.count(probe.remainingTokens()));
+        response.setHeader("X-RateLimit-Cost", RateLimitHeaderValues.count(cost));
+        response.setHeader("X-RateLimit-Reset",
+                RateLimitHeaderValues.epochSeconds(System.currentTimeMillis(), probe.nanosUntilRefill()));
     }
 
-    private LocalBucket createBucketForCategory(EndpointCategory category) {
-        int capacity = switch (category) {
-            case AUTH -> rateLimitingConfig.getAuthRequestsPerMinute();
-            case PUBLIC -> rateLimitingConfig.getPublicRequestsPerMinute();
-            case AUTHENTICATED -> rateLimitingConfig.getAuthenticatedRequestsPerMinute();
-            case NONE -> 0;
-        };
-
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(capacity)
-                .refillIntervally(capacity, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
-    }
-
-    private void addRateLimitHeaders(HttpServletResponse response, LocalBucket bucket, EndpointCategory category) {
-        int capacity = switch (category) {
-            case AUTH -> rateLimitingConfig.getAuthRequestsPerMinute();
-            case PUBLIC -> rateLimitingConfig.getPublicRequestsPerMinute();
-            case AUTHENTICATED -> rateLimitingConfig.getAuthenticatedRequestsPerMinute();
-            case NONE -> 0;
-        };
-
-        long availableTokens = bucket.getAvailableTokens();
-        response.setHeader("X-RateLimit-Limit", String.valueOf(capacity));
-        response.setHeader("X-RateLimit-Remaining", String.valueOf(availableTokens));
-        response.setHeader("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(60).getEpochSecond()));
-    }
-
-    private void handleRateLimitExceeded(HttpServletResponse response, LocalBucket bucket, EndpointCategory category)
-            throws IOException {
+    private void handleRateLimitExceeded(HttpServletResponse response, RateLimitProbe probe, RateLimitPolicy policy,
+                                         int cost) throws IOException {
+        // Retry-After is when enough tokens for this request will have been refilled
+        long retryAfterSeconds = Math.max(1, RateLimitHeaderValues.ceilSeconds(probe.nanosUntilRefill()));
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setHeader("Retry-After", "60");
+        response.setHeader("Retry-After", RateLimitHeaderValues.count(retryAfterSeconds));
 
-        int capacity = switch (category) {
-            case AUTH -> rateLimitingConfig.getAuthRequestsPerMinute();
-            case PUBLIC -> rateLimitingConfig.getPublicRequestsPerMinute();
-            case AUTHENTICATED -> rateLimitingConfig.getAuthenticatedRequestsPerMinute();
-            case NONE -> 0;
-        };
+        response.setHeader("X-RateLimit-Limit", policy.limitHeader());
+        response.setHeader("X-RateLimit-Remaining", RateLimitHeaderValues.count(probe.remainingTokens()));
+        response.setHeader("X-RateLimit-Cost", RateLimitHeaderValues.count(cost));
+        response.setHeader("X-RateLimit-Reset",
+                RateLimitHeaderValues.epochSeconds(System.currentTimeMillis(), probe.nanosUntilRefill()));
 
-        response.setHeader("X-RateLimit-Limit", String.valueOf(capacity));
-        response.setHeader("X-RateLimit-Remaining", "0");
-        response.setHeader("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(60).getEpochSecond()));
-
-        RateLimitErrorResponse errorResponse = RateLimitErrorResponse.tooManyRequests(60);
+        RateLimitErrorResponse errorResponse = RateLimitErrorResponse.tooManyRequests(retryAfterSeconds);
         jsonMapper.writeValue(response.getWriter(), errorResponse);
-
-        log.warn("Rate limit exceeded for category: {}", category);
-    }
-
-    private enum EndpointCategory {
-        AUTH,
-        PUBLIC,
-        AUTHENTICATED,
-        NONE
+        // Rejections are summarized per window by HeavyHitterTracker rather than logged one by one
     }
 }
-
@@ -0,0 +1,273 @@
+package com.abc.jibpilot.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * The set of proxy addresses whose forwarding headers are believed, configured as CIDRs (IPv4 and IPv6)
+ * in {@code app.rate-limiting.trusted-proxies}.
+ * <p>
+ * Addresses are checked straight from the header text: the parser walks the digits of each hop and
+ * feeds the bits into a {@link CidrTrie}, so classifying a hop needs no substring, split or regex.
+ * IPv4-mapped IPv6 addresses ({@code ::ffff:a.b.c.d}) are checked against the IPv4 ranges.
+ */
+@Slf4j
+@Component
+public class TrustedProxies {
+
+    enum Hop { TRUSTED, UNTRUSTED, INVALID }
+
+    private static final int INVALID = -3;
+    private static final String IPV4_MAPPED_PREFIX = "::ffff:";
+
+    private final CidrTrie ipv4 = new CidrTrie();
+    private final CidrTrie ipv6 = new CidrTrie();
+
+    public TrustedProxies(@Value("${app.rate-limiting.trusted-proxies:}") String[] cidrs) {
+        int count = 0;
+        for (String cidr : cidrs) {
+            if (!cidr.isBlank()) {
+                add(cidr.trim());
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("Trusting forwarding headers from {} proxy range(s)", count);
+        }
+    }
+
+    boolean isEmpty() {
+        return ipv4.isEmpty() && ipv6.isEmpty();
+    }
+
+    /**
+     * Classifies the address in {@code text[start, end)}. Surrounding whitespace, a port and IPv6
+     * brackets or zone ids are ignored.
+     */
+    Hop classify(String text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return Hop.INVALID;
+        }
+
+        if (text.charAt(start) == '[') {
+            int close = text.indexOf(']', start);
+            if (close < 0 || close >= end) {
+                return Hop.INVALID;
+            }
+            start++;
+            end = close;
+        } else {
+            int firstColon = text.indexOf(':', start);
+            if (firstColon >= 0 && firstColon < end) {
+                int secondColon = text.indexOf(':', firstColon + 1);
+                if (secondColon < 0 || secondColon >= end) {
+                    // a.b.c.d:port
+                    end = firstColon;
+                }
+            }
+        }
+        int zone = text.indexOf('%', start);
+        if (zone >= 0 && zone < end) {
+            end = zone;
+        }
+
+        int state;
+        CidrTrie trie;
+        if (text.indexOf(':', start) < 0 || text.indexOf(':', start) >= end) {
+            trie = ipv4;
+            state = walkIpv4(trie, CidrTrie.ROOT, text, start, end);
+        } else if (end - start > IPV4_MAPPED_PREFIX.length()
+                && text.regionMatches(true, start, IPV4_MAPPED_PREFIX, 0, IPV4_MAPPED_PREFIX.length())
+                && text.indexOf('.', start) >= 0 && text.indexOf('.', start) < end) {
+            trie = ipv4;
+            state = walkIpv4(trie, CidrTrie.ROOT, text, start + IPV4_MAPPED_PREFIX.length(), end);
+        } else {
+            trie = ipv6;
+            state = walkIpv6(trie, text, start, end);
+        }
+        if (state == INVALID) {
+            return Hop.INVALID;
+        }
+        return trie.matched(state) ? Hop.TRUSTED : Hop.UNTRUSTED;
+    }
+
+    Hop classify(String address) {
+        return classify(address, 0, address.length());
+    }
+
+    private void add(String cidr) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr : cidr.substring(0, slash);
+        // Only literals are accepted, so InetAddress never performs a DNS lookup here
+        if (address.isEmpty() || classify(address) == Hop.INVALID) {
+            throw new IllegalArgumentException("Invalid trusted proxy CIDR '" + cidr + "'");
+        }
+        InetAddress inetAddress;
+        try {
+            inetAddress = InetAddress.getByName(address);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Invalid trusted proxy CIDR '" + cidr + "'", e);
+        }
+        byte[] bytes = inetAddress.getAddress();
+        int prefixLength;
+        try {
+            prefixLength = slash < 0 ? bytes.length * 8 : Integer.parseInt(cidr.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid prefix length in trusted proxy CIDR '" + cidr + "'", e);
+        }
+        (inetAddress instanceof Inet4Address ? ipv4 : ipv6).insert(bytes, prefixLength);
+    }
+
+    /**
+     * Parses a dotted quad, feeding each octet into the trie walk. A negative starting state only
+     * validates.
+     *
+     * @return the walk state after all 32 bits, or {@link #INVALID}
+     */
+    private static int walkIpv4(CidrTrie trie, int state, String text, int start, int end) {
+        int octets = 0;
+        int i = start;
+        while (true) {
+            int value = 0;
+            int digits = 0;
+            while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                value = value * 10 + (text.charAt(i) - '0');
+                i++;
+                if (++digits > 3) {
+                    return INVALID;
+                }
+            }
+            if (digits == 0 || value > 255) {
+                return INVALID;
+            }
+            if (state >= 0) {
+                state = trie.feed(state, value, 8);
+            }
+            octets++;
+            if (i == end) {
+                return octets == 4 ? state : INVALID;
+            }
+            if (text.charAt(i) != '.' || octets == 4) {
+                return INVALID;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Parses an IPv6 address (with optional {@code ::} and trailing dotted quad), feeding its 128 bits
+     * into the trie walk in order.
+     */
+    private static int walkIpv6(CidrTrie trie, String text, int start, int end) {
+        int doubleColon = -1;
+        for (int i = start; i + 1 < end; i++) {
+            if (text.charAt(i) == ':' && text.charAt(i + 1) == ':') {
+                if (doubleColon >= 0) {
+                    return INVALID;
+                }
+                doubleColon = i;
+                i++;
+            }
+        }
+
+        if (doubleColon < 0) {
+            if (groupCount(text, start, end, true) != 8) {
+                return INVALID;
+            }
+            return feedGroups(trie, CidrTrie.ROOT, text, start, end);
+        }
+
+        int left = groupCount(text, start, doubleColon, false);
+        int right = groupCount(text, doubleColon + 2, end, true);
+        if (left < 0 || right < 0 || left + right > 7) {
+            return INVALID;
+        }
+        int state = feedGroups(trie, CidrTrie.ROOT, text, start, doubleColon);
+        for (int i = left + right; i < 8; i++) {
+            state = trie.feed(state, 0, 16);
+        }
+        return feedGroups(trie, state, text, doubleColon + 2, end);
+    }
+
+    /**
+     * Validates the colon-separated groups in {@code text[from, to)}.
+     *
+     * @return the number of 16-bit groups (a dotted quad counts as two), or -1 if malformed
+     */
+    private static int groupCount(String text, int from, int to, boolean ipv4TailAllowed) {
+        if (from == to) {
+            return 0;
+        }
+        int count = 0;
+        int tokenStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && text.charAt(i) != ':') {
+                continue;
+            }
+            if (i == tokenStart) {
+                return -1;
+            }
+            if (isDottedQuad(text, tokenStart, i)) {
+                if (!ipv4TailAllowed || i != to
+                        || walkIpv4(null, CidrTrie.NO_MATCH, text, tokenStart, i) == INVALID) {
+                    return -1;
+                }
+                count += 2;
+            } else {
+                if (i - tokenStart > 4 || hexValue(text, tokenStart, i) < 0) {
+                    return -1;
+                }
+                count++;
+            }
+            tokenStart = i + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Feeds already validated groups into the trie walk.
+     */
+    private static int feedGroups(CidrTrie trie, int state, String text, int from, int to) {
+        int tokenStart = from;
+        for (int i = from; i <= to && from < to; i++) {
+            if (i < to && text.charAt(i) != ':') {
+                continue;
+            }
+            if (isDottedQuad(text, tokenStart, i)) {
+                state = walkIpv4(trie, state, text, tokenStart, i);
+            } else {
+                state = trie.feed(state, hexValue(text, tokenStart, i), 16);
+            }
+            tokenStart = i + 1;
+        }
+        return state;
+    }
+
+    private static boolean isDottedQuad(String text, int from, int to) {
+        int dot = text.indexOf('.', from);
+        return dot >= 0 && dot < to;
+    }
+
+    private static int hexValue(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
@@ -14,5 +14,13 @@ public record RateLimitErrorResponse(
                 retryAfterSeconds
         );
     }
+
+    public static RateLimitErrorResponse serviceUnavailable(long retryAfterSeconds) {
+        return new RateLimitErrorResponse(
+                "Service Unavailable",
+                "Server is at capacity. Please try again shortly.",
+                retryAfterSeconds
+        );
+    }
 }
 
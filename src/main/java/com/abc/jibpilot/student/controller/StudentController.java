@@ -1,11 +1,21 @@
 package com.abc.jibpilot.student.controller;
 
+import com.abc.jibpilot.bulkhead.Bulkhead;
+import com.abc.jibpilot.enrollment.EnrollmentAction;
+import com.abc.jibpilot.enrollment.EnrollmentWriteBehindBuffer;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus;
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.student.dto.CreateStudentRequest;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.dto.UpdateStudentRequest;
+import com.abc.jibpilot.student.service.ExportFormat;
+import com.abc.jibpilot.student.service.StudentExportService;
 import com.abc.jibpilot.student.service.StudentService;
+import com.abc.jibpilot.student.service.StudentSort;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -16,12 +26,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
+import java.util.UUID;
 
+import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.ResponseEntity.*;
 
 @RestController
@@ -31,6 +45,8 @@ import static org.springframework.http.ResponseEntity.*;
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentExportService studentExportService;
+    private final EnrollmentWriteBehindBuffer enrollmentBuffer;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -54,8 +70,26 @@ public class StudentController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<StudentResponse>> getAllStudents() {
-        return ok(studentService.getAllStudents());
+    @Bulkhead(name = "student-list", maxConcurrent = 2)
+    public ResponseEntity<CursorPage<StudentResponse>> getStudents(@RequestParam(defaultValue = "id") String sort,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return ok(studentService.getStudents(StudentSort.fromParam(sort), cursor, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Bulkhead(name = "student-export", maxConcurrent = 1, maxQueued = 0)
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("students." + exportFormat.param())
+                .build();
+        StreamingResponseBody body = out -> studentExportService.export(exportFormat, out);
+        return ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
     }
 
     @PutMapping("/{id}")
@@ -74,13 +108,39 @@ public class StudentController {
 
     @PostMapping("/{studentId}/courses/{courseId}")
     @PreAuthorize("@securityGuard.canAccessStudent(#studentId)")
-    public ResponseEntity<StudentResponse> enrollInCourse(@PathVariable Long studentId, @PathVariable Long courseId) {
+    public ResponseEntity<?> enrollInCourse(@PathVariable Long studentId, @PathVariable Long courseId) {
+        if (enrollmentBuffer.isEnabled()) {
+            return acceptedRequest(enrollmentBuffer.submit(EnrollmentAction.ENROLL, studentId, courseId));
+        }
         return ok(studentService.enrollStudentInCourse(studentId, courseId));
     }
 
     @DeleteMapping("/{studentId}/courses/{courseId}")
     @PreAuthorize("@securityGuard.canAccessStudent(#studentId)")
-    public ResponseEntity<StudentResponse> dropCourse(@PathVariable Long studentId, @PathVariable Long courseId) {
+    public ResponseEntity<?> dropCourse(@PathVariable Long studentId, @PathVariable Long courseId) {
+        if (enrollmentBuffer.isEnabled()) {
+            return acceptedRequest(enrollmentBuffer.submit(EnrollmentAction.DROP, studentId, courseId));
+        }
         return ok(studentService.removeStudentFromCourse(studentId, courseId));
     }
+
+    @GetMapping("/{studentId}/enrollment-requests/{requestId}")
+    @PreAuthorize("@securityGuard.canAccessStudent(#studentId)")
+    public ResponseEntity<EnrollmentRequestStatus> getEnrollmentRequest(@PathVariable Long studentId,
+                                                                        @PathVariable UUID requestId) {
+        return enrollmentBuffer.status(requestId)
+                .filter(status -> status.studentId().equals(studentId))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Enrollment request not found"));
+    }
+
+    // Write-behind mode: 202 with the request status and where to poll it
+    private ResponseEntity<EnrollmentRequestStatus> acceptedRequest(EnrollmentRequestStatus status) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/students/{studentId}/enrollment-requests/{requestId}")
+                .buildAndExpand(status.studentId(), status.id())
+                .encode()
+                .toUri();
+        return accepted().location(location).body(status);
+    }
 }
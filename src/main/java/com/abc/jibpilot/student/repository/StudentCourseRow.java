@@ -0,0 +1,21 @@
+package com.abc.jibpilot.student.repository;
+
+/**
+ * A student's scalar fields joined with one of their courses; the course fields are {@code null} for a student
+ * without courses.
+ */
+public interface StudentCourseRow {
+    Long getStudentId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    Long getCourseId();
+
+    String getCode();
+
+    String getTitle();
+}
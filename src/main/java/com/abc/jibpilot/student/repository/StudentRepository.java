@@ -1,10 +1,138 @@
 package com.abc.jibpilot.student.repository;
 
 import com.abc.jibpilot.student.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByEmail(String email);
+
+    /**
+     * All students with their courses and (non-owning, hence otherwise eagerly queried) user account in a
+     * single statement, instead of one lazy load per student for each.
+     */
+    @Query("""
+            select distinct s from Student s
+            left join fetch s.courses
+            left join fetch s.userAccount
+            order by s.id
+            """)
+    List<Student> findAllWithCourses();
+
+    /**
+     * Students enrolled in a course, each with all of their courses and their user account, in a single
+     * statement.
+     */
+    @Query("""
+            select distinct s from Student s
+            join s.courses enrolled
+            left join fetch s.courses
+            left join fetch s.userAccount
+            where enrolled.id = :courseId
+            order by s.id
+            """)
+    List<Student> findAllByCourseIdWithCourses(@Param("courseId") Long courseId);
+
+    /**
+     * Ids of the next keyset page ordered by id. Ids only, so the page query never triggers the per-row
+     * user account load; {@link #findAllWithCoursesByIdIn} hydrates the page afterwards.
+     */
+    @Query("select s.id from Student s where s.id > :afterId order by s.id")
+    List<Long> findPageIdsOrderById(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Ids of the next keyset page ordered by last name, then id.
+     */
+    @Query("""
+            select s.id from Student s
+            where s.lastName > :lastName or (s.lastName = :lastName and s.id > :afterId)
+            order by s.lastName, s.id
+            """)
+    List<Long> findPageIdsOrderByLastName(@Param("lastName") String lastName,
+                                          @Param("afterId") long afterId,
+                                          Limit limit);
+
+    @Query("""
+            select distinct s from Student s
+            left join fetch s.courses
+            left join fetch s.userAccount
+            where s.id in :ids
+            """)
+    List<Student> findAllWithCoursesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Student fields and course summaries for one student, read without loading either entity.
+     */
+    @Query("""
+            select s.id as studentId, s.firstName as firstName, s.lastName as lastName, s.email as email,
+                   c.id as courseId, c.code as code, c.title as title
+            from Student s
+            left join s.courses c
+            where s.id = :id
+            """)
+    List<StudentCourseRow> findRowsById(@Param("id") Long id);
+
+    /**
+     * Adds one {@code student_courses} row unless it exists already or either side is missing.
+     *
+     * @return 1 if a row was inserted, otherwise 0
+     */
+    @Modifying
+    @Query(value = """
+            insert into student_courses (student_id, course_id)
+            select cast(:studentId as bigint), cast(:courseId as bigint)
+            where exists (select 1 from students where id = :studentId)
+              and exists (select 1 from courses where id = :courseId)
+              and not exists (select 1 from student_courses where student_id = :studentId and course_id = :courseId)
+            """, nativeQuery = true)
+    int insertEnrollment(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Query(value = "select course_id from student_courses where student_id = :studentId", nativeQuery = true)
+    List<Long> findCourseIdsByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Adds {@code student_courses} rows for the given courses in one statement, skipping courses that do not
+     * exist or that the student is already enrolled in.
+     *
+     * @return the number of rows inserted
+     */
+    @Modifying
+    @Query(value = """
+            insert into student_courses (student_id, course_id)
+            select cast(:studentId as bigint), c.id from courses c
+            where c.id in (:courseIds)
+              and not exists (select 1 from student_courses sc where sc.student_id = :studentId and sc.course_id = c.id)
+            """, nativeQuery = true)
+    int insertEnrollments(@Param("studentId") Long studentId, @Param("courseIds") Collection<Long> courseIds);
+
+    @Modifying
+    @Query(value = "delete from student_courses where student_id = :studentId and course_id in (:courseIds)",
+            nativeQuery = true)
+    int deleteEnrollments(@Param("studentId") Long studentId, @Param("courseIds") Collection<Long> courseIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from student_courses where student_id = :studentId", nativeQuery = true)
+    int deleteEnrollmentsByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Deletes the student row without loading it. Clears the persistence context afterwards so no managed
+     * entity still refers to the removed student or its enrollments.
+     *
+     * @return 1 if the student existed, otherwise 0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from students where id = :id", nativeQuery = true)
+    int deleteStudentById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "delete from student_courses where student_id = :studentId and course_id = :courseId",
+            nativeQuery = true)
+    int deleteEnrollment(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
 }
@@ -0,0 +1,39 @@
+package com.abc.jibpilot.student.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Formats supported by the student export.
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+    private final String param;
+    private final MediaType mediaType;
+
+    ExportFormat(String param, MediaType mediaType) {
+        this.param = param;
+        this.mediaType = mediaType;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat fromParam(String param) {
+        for (ExportFormat format : values()) {
+            if (format.param.equalsIgnoreCase(param)) {
+                return format;
+            }
+        }
+        throw new ResponseStatusException(BAD_REQUEST, "Unsupported export format: " + param);
+    }
+}
@@ -0,0 +1,174 @@
+package com.abc.jibpilot.student.service;
+
+import com.abc.jibpilot.course.dto.CourseSummaryResponse;
+import com.abc.jibpilot.student.dto.StudentResponse;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams every student with their enrollments as NDJSON or CSV.
+ * <p>
+ * Rows are read with a plain JDBC query and a fetch size, so the driver holds a server-side cursor and no
+ * entities enter a persistence context. The query is ordered by student, so one student's rows are adjacent
+ * and only that student is buffered before it is written out. Memory use does not grow with the table.
+ */
+@Slf4j
+@Service
+public class StudentExportService {
+
+    private static final String EXPORT_SQL = """
+            select s.id, s.first_name, s.last_name, s.email, c.id as course_id, c.code, c.title
+            from students s
+            left join student_courses sc on sc.student_id = s.id
+            left join courses c on c.id = sc.course_id
+            order by s.id, c.id
+            """;
+    private static final String CSV_HEADER = "id,firstName,lastName,email,courseCodes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+
+    public StudentExportService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                JsonMapper jsonMapper,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only honours the fetch size (and keeps a cursor) inside a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Writes all students to {@code out} in the given format. Does not close the stream.
+     */
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        StudentRowHandler handler = new StudentRowHandler(format, writer);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query(EXPORT_SQL, handler);
+                handler.finish();
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} students as {}", handler.written, format.param());
+    }
+
+    private void write(ExportFormat format, Writer writer, StudentResponse student) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(jsonMapper.writeValueAsString(student));
+        } else {
+            writer.write(String.valueOf(student.id()));
+            writer.write(',');
+            writer.write(csvField(student.firstName()));
+            writer.write(',');
+            writer.write(csvField(student.lastName()));
+            writer.write(',');
+            writer.write(csvField(student.email()));
+            writer.write(',');
+            writer.write(csvField(student.courses().stream()
+                    .map(CourseSummaryResponse::code)
+                    .collect(Collectors.joining(";"))));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Quotes a CSV field when needed (RFC 4180) and defuses values a spreadsheet would run as a formula.
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Collects the rows of one student at a time and writes the student out when the next one starts.
+     */
+    private final class StudentRowHandler implements RowCallbackHandler {
+
+        private final ExportFormat format;
+        private final Writer writer;
+        private long currentId = -1;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private Set<CourseSummaryResponse> courses = new LinkedHashSet<>();
+        private long written;
+
+        private StudentRowHandler(ExportFormat format, Writer writer) {
+            this.format = format;
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (id != currentId) {
+                finish();
+                currentId = id;
+                firstName = rs.getString("first_name");
+                lastName = rs.getString("last_name");
+                email = rs.getString("email");
+                courses = new LinkedHashSet<>();
+            }
+            long courseId = rs.getLong("course_id");
+            if (!rs.wasNull()) {
+                courses.add(new CourseSummaryResponse(courseId, rs.getString("code"), rs.getString("title")));
+            }
+        }
+
+        void finish() {
+            if (currentId < 0) {
+                return;
+            }
+            try {
+                write(format, writer, new StudentResponse(currentId, firstName, lastName, email, courses));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            written++;
+            currentId = -1;
+        }
+    }
+}
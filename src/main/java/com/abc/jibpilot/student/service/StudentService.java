@@ -1,5 +1,6 @@
 package com.abc.jibpilot.student.service;
 
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.student.dto.CreateStudentRequest;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.dto.UpdateStudentRequest;
@@ -13,6 +14,8 @@ public interface StudentService {
 
     List<StudentResponse> getAllStudents();
 
+    CursorPage<StudentResponse> getStudents(StudentSort sort, String cursor, Integer limit);
+
     StudentResponse updateStudent(Long id, UpdateStudentRequest request);
 
     void deleteStudent(Long id);
@@ -2,23 +2,38 @@ package com.abc.jibpilot.student.service;
 
 import com.abc.jibpilot.course.dto.CourseSummaryResponse;
 import com.abc.jibpilot.course.entity.Course;
+import com.abc.jibpilot.course.exception.CourseFullException;
 import com.abc.jibpilot.course.exception.CourseNotFoundException;
 import com.abc.jibpilot.course.repository.CourseRepository;
+import com.abc.jibpilot.auth.repository.UserAccountRef;
 import com.abc.jibpilot.auth.repository.UserRepository;
+import com.abc.jibpilot.auth.service.AppUserDetailsService;
+import com.abc.jibpilot.auth.service.EmailIdentityService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import com.abc.jibpilot.pagination.CursorPage;
+import com.abc.jibpilot.pagination.KeysetCursor;
+import com.abc.jibpilot.pagination.PageLimits;
 import com.abc.jibpilot.student.dto.CreateStudentRequest;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.dto.UpdateStudentRequest;
 import com.abc.jibpilot.student.entity.Student;
 import com.abc.jibpilot.student.exception.StudentNotFoundException;
+import com.abc.jibpilot.student.repository.StudentCourseRow;
 import com.abc.jibpilot.student.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.CONFLICT;
@@ -31,11 +46,13 @@ public class StudentServiceImpl implements StudentService {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final AppUserDetailsService userDetailsService;
+    private final EmailIdentityService emailIdentityService;
+    private final PageLimits pageLimits;
 
     @Override
     public StudentResponse createStudent(CreateStudentRequest request) {
-        ensureEmailIsUnique(request.email(), null);
-
         Student student = Student.builder()
                 .firstName(request.firstName())
                 .lastName(request.lastName())
@@ -43,7 +60,17 @@ public class StudentServiceImpl implements StudentService {
                 .courses(resolveCourses(request.courseIds()))
                 .build();
 
-        return toResponse(studentRepository.save(student));
+        // No uniqueness pre-check: the unique constraints decide, and a clash becomes 409
+        Student saved;
+        try {
+            saved = studentRepository.save(student);
+        } catch (DataIntegrityViolationException ex) {
+            throw EmailIdentityService.translate(ex);
+        }
+        emailIdentityService.claim(saved.getEmail(), saved.getId());
+        reserveSeats(courseIds(saved.getCourses()));
+
+        return toResponse(saved);
     }
 
     @Override
@@ -57,81 +84,231 @@ public class StudentServiceImpl implements StudentService {
     @Override
     @Transactional(readOnly = true)
     public List<StudentResponse> getAllStudents() {
-        return studentRepository.findAll()
+        return studentRepository.findAllWithCourses()
                 .stream()
                 .map(this::toResponse)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<StudentResponse> getStudents(StudentSort sort, String cursor, Integer limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor, sort.param());
+        int pageSize = pageLimits.resolve(limit);
+        // One extra row tells whether another page follows without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<Long> ids = switch (sort) {
+            case ID -> studentRepository.findPageIdsOrderById(after.id(), fetch);
+            case LAST_NAME -> studentRepository.findPageIdsOrderByLastName(after.value(), after.id(), fetch);
+        };
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Map<Long, Student> byId = studentRepository.findAllWithCoursesByIdIn(pageIds)
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<Student> page = pageIds.stream().map(byId::get).toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            Student last = page.get(page.size() - 1);
+            String value = sort == StudentSort.LAST_NAME ? last.getLastName() : "";
+            nextCursor = new KeysetCursor(sort.param(), last.getId(), value).encode();
+        }
+        return new CursorPage<>(page.stream().map(this::toResponse).toList(), nextCursor);
+    }
+
     @Override
     public StudentResponse updateStudent(Long id, UpdateStudentRequest request) {
         Student existing = studentRepository.findById(id)
                 .orElseThrow(() -> new StudentNotFoundException(id));
 
-        ensureEmailIsUnique(request.email(), id);
+        String previousEmail = existing.getEmail();
+        boolean emailChanged = !previousEmail.equals(request.email());
+        // Claims ignore case, so a change of case alone keeps the existing one
+        boolean claimChanged = !previousEmail.equalsIgnoreCase(request.email());
+        if (claimChanged) {
+            emailIdentityService.claim(request.email(), id);
+        }
 
+        // Unchanged values leave the entity clean; changed ones are the only columns updated (@DynamicUpdate)
         existing.setFirstName(request.firstName());
         existing.setLastName(request.lastName());
         existing.setEmail(request.email());
+        if (claimChanged) {
+            // Kept while the student's account still signs in with it
+            emailIdentityService.releaseIfUnused(previousEmail);
+        }
+        if (emailChanged) {
+            userDetailsService.evict(previousEmail);
+            userDetailsService.evict(request.email());
+        }
+
+        Set<Long> added = Set.of();
+        Set<Long> removed = Set.of();
         if (request.courseIds() != null) {
-            existing.setCourses(resolveCourses(request.courseIds()));
+            // Only the delta touches student_courses; the mapped collection is never loaded or replaced
+            Set<Long> current = new HashSet<>(studentRepository.findCourseIdsByStudentId(id));
+            added = new HashSet<>(request.courseIds());
+            added.removeAll(current);
+            removed = current;
+            removed.removeAll(request.courseIds());
+            addEnrollments(id, added);
+            removeEnrollments(id, removed);
         }
 
-        return toResponse(studentRepository.save(existing));
+        StudentResponse response = loadResponse(id);
+        // Seat counters last, as in enrollStudentInCourse, to hold the course row locks as briefly as possible
+        reserveSeats(added);
+        releaseSeats(removed);
+        return response;
     }
 
     @Override
     public void deleteStudent(Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new StudentNotFoundException(id));
-
-        student.getCourses().forEach(course -> course.getStudents().remove(student));
-
-        if (student.getUserAccount() != null) {
-            userRepository.delete(student.getUserAccount());
+        // A fixed handful of statements however many courses the student has; nothing is loaded
+        Optional<UserAccountRef> account = userRepository.findRefByStudentId(id);
+        courseRepository.releaseSeatsOfStudent(id);
+        studentRepository.deleteEnrollmentsByStudentId(id);
+        account.ifPresent(ref -> userRepository.deleteAccountById(ref.getId()));
+        emailIdentityService.releaseAll(id);
+        if (studentRepository.deleteStudentById(id) == 0) {
+            throw new StudentNotFoundException(id);
         }
 
-        studentRepository.delete(student);
+        account.ifPresent(ref -> {
+            tokenRevocationService.revokeAllTokens(ref.getId());
+            userDetailsService.evict(ref.getEmail());
+        });
     }
 
     @Override
     public StudentResponse enrollStudentInCourse(Long studentId, Long courseId) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new StudentNotFoundException(studentId));
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new CourseNotFoundException(courseId));
-
-        student.getCourses().add(course);
-        course.getStudents().add(student);
+        boolean inserted;
+        try {
+            inserted = studentRepository.insertEnrollment(studentId, courseId) == 1;
+            if (!inserted) {
+                // Nothing inserted: either side is missing, or the student is already enrolled (a no-op)
+                ensureStudentAndCourseExist(studentId, courseId);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent request inserted the same row or deleted the student or course
+            throw new ResponseStatusException(CONFLICT, "Enrollment changed concurrently, please retry");
+        }
 
-        return toResponse(studentRepository.save(student));
+        StudentResponse response = loadResponse(studentId);
+        // Taken last: the seat update locks the course row until commit, and on a busy course every
+        // other enrollment queues behind that lock. A full course rolls the insert back.
+        if (inserted) {
+            reserveSeats(Set.of(courseId));
+        }
+        return response;
     }
 
     @Override
     public StudentResponse removeStudentFromCourse(Long studentId, Long courseId) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new StudentNotFoundException(studentId));
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new CourseNotFoundException(courseId));
-
-        student.getCourses().remove(course);
-        course.getStudents().remove(student);
+        boolean deleted = studentRepository.deleteEnrollment(studentId, courseId) == 1;
+        if (!deleted) {
+            ensureStudentAndCourseExist(studentId, courseId);
+        }
 
-        return toResponse(studentRepository.save(student));
+        StudentResponse response = loadResponse(studentId);
+        if (deleted) {
+            releaseSeats(Set.of(courseId));
+        }
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<StudentResponse> getStudentsByCourse(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new CourseNotFoundException(courseId));
+        if (!courseRepository.existsById(courseId)) {
+            throw new CourseNotFoundException(courseId);
+        }
 
-        return course.getStudents()
+        return studentRepository.findAllByCourseIdWithCourses(courseId)
                 .stream()
                 .map(this::toResponse)
                 .toList();
     }
 
+    private void addEnrollments(Long studentId, Set<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        int inserted;
+        try {
+            inserted = studentRepository.insertEnrollments(studentId, courseIds);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(CONFLICT, "Enrollment changed concurrently, please retry");
+        }
+        if (inserted != courseIds.size()) {
+            // Either a course is missing or a concurrent request enrolled the student meanwhile
+            resolveCourses(courseIds);
+            throw new ResponseStatusException(CONFLICT, "Enrollment changed concurrently, please retry");
+        }
+    }
+
+    private void removeEnrollments(Long studentId, Set<Long> courseIds) {
+        if (!courseIds.isEmpty() && studentRepository.deleteEnrollments(studentId, courseIds) != courseIds.size()) {
+            throw new ResponseStatusException(CONFLICT, "Enrollment changed concurrently, please retry");
+        }
+    }
+
+    /**
+     * Takes a seat in each course, in id order so concurrent multi-course writers lock rows consistently.
+     */
+    private void reserveSeats(Set<Long> courseIds) {
+        for (Long courseId : new TreeSet<>(courseIds)) {
+            if (courseRepository.reserveSeat(courseId) == 0) {
+                throw new CourseFullException(courseId);
+            }
+        }
+    }
+
+    private void releaseSeats(Set<Long> courseIds) {
+        if (!courseIds.isEmpty()) {
+            courseRepository.releaseSeats(courseIds);
+        }
+    }
+
+    private static Set<Long> courseIds(Set<Course> courses) {
+        return courses.stream()
+                .map(Course::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private void ensureStudentAndCourseExist(Long studentId, Long courseId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new StudentNotFoundException(studentId);
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new CourseNotFoundException(courseId);
+        }
+    }
+
+    /**
+     * Builds a response from a single projection query instead of loading the student and its collections.
+     */
+    private StudentResponse loadResponse(Long studentId) {
+        List<StudentCourseRow> rows = studentRepository.findRowsById(studentId);
+        if (rows.isEmpty()) {
+            throw new StudentNotFoundException(studentId);
+        }
+
+        StudentCourseRow first = rows.get(0);
+        Set<CourseSummaryResponse> courses = rows.stream()
+                .filter(row -> row.getCourseId() != null)
+                .map(row -> new CourseSummaryResponse(row.getCourseId(), row.getCode(), row.getTitle()))
+                .collect(Collectors.toSet());
+        return new StudentResponse(first.getStudentId(), first.getFirstName(), first.getLastName(),
+                first.getEmail(), courses);
+    }
+
     private StudentResponse toResponse(Student student) {
         return new StudentResponse(
                 student.getId(),
@@ -142,23 +319,6 @@ public class StudentServiceImpl implements StudentService {
         );
     }
 
-    private void ensureEmailIsUnique(String email, Long currentId) {
-        studentRepository.findByEmail(email).ifPresent(existing -> {
-            boolean isDifferentRecord = currentId == null || !existing.getId().equals(currentId);
-            if (isDifferentRecord) {
-                throw new ResponseStatusException(CONFLICT, "Email already in use");
-            }
-        });
-
-        userRepository.findByEmail(email).ifPresent(user -> {
-            Long linkedStudentId = user.getStudent() != null ? user.getStudent().getId() : null;
-            boolean isDifferentRecord = currentId == null || !currentId.equals(linkedStudentId);
-            if (isDifferentRecord) {
-                throw new ResponseStatusException(CONFLICT, "Email already in use");
-            }
-        });
-    }
-
     private Set<Course> resolveCourses(Set<Long> courseIds) {
         if (courseIds == null || courseIds.isEmpty()) {
             return new HashSet<>();
@@ -0,0 +1,32 @@
+package com.abc.jibpilot.student.service;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Orders supported by the student listing. Every order ends with the id so keyset pages are stable.
+ */
+public enum StudentSort {
+    ID("id"),
+    LAST_NAME("lastName");
+
+    private final String param;
+
+    StudentSort(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public static StudentSort fromParam(String param) {
+        for (StudentSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new ResponseStatusException(BAD_REQUEST, "Unsupported sort: " + param);
+    }
+}
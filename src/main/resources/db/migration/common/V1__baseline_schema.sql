@@ -0,0 +1,41 @@
+-- Schema as generated by Hibernate (ddl-auto: update) before migrations were introduced. Existing databases
+-- are baselined at this version (spring.flyway.baseline-on-migrate) and only receive the later migrations,
+-- so nothing added to the entities since may appear here.
+
+create table courses (
+    id          bigint generated by default as identity,
+    code        varchar(255)  not null,
+    title       varchar(255)  not null,
+    description varchar(1000),
+    constraint pk_courses primary key (id),
+    constraint uk_courses_code unique (code)
+);
+
+create table students (
+    id         bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name  varchar(255) not null,
+    email      varchar(255) not null,
+    constraint pk_students primary key (id),
+    constraint uk_students_email unique (email)
+);
+
+create table users (
+    id         bigint generated by default as identity,
+    email      varchar(255) not null,
+    password   varchar(255) not null,
+    role       varchar(255) not null,
+    student_id bigint,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_student unique (student_id),
+    constraint fk_users_student foreign key (student_id) references students (id)
+);
+
+create table student_courses (
+    student_id bigint not null,
+    course_id  bigint not null,
+    constraint pk_student_courses primary key (student_id, course_id),
+    constraint fk_student_courses_student foreign key (student_id) references students (id),
+    constraint fk_student_courses_course foreign key (course_id) references courses (id)
+);
@@ -0,0 +1,16 @@
+-- Objects added to the entities after the baseline. "If not exists" because a database that stayed on
+-- ddl-auto: update while they were introduced may already have some of them.
+
+-- Course capacity (null means unlimited) and the seat counter
+alter table courses add column if not exists capacity integer;
+alter table courses add column if not exists enrolled_count integer default 0 not null;
+
+-- Keyset pagination of students by last name
+create index if not exists idx_students_last_name_id on students (last_name, id);
+
+-- One row per email in use, naming the student it belongs to
+create table if not exists email_identities (
+    email      varchar(255) not null,
+    student_id bigint,
+    constraint pk_email_identities primary key (email)
+);
@@ -0,0 +1,22 @@
+-- Roster lookups (students of a course) filter on course_id; the primary key leads with student_id
+create index if not exists idx_student_courses_course_student on student_courses (course_id, student_id);
+
+-- Seat counters were introduced after enrollments existed; count them once from the join table
+update courses
+set enrolled_count = (select count(*) from student_courses sc where sc.course_id = courses.id);
+
+-- Email claims are case-insensitive from now on
+update email_identities set email = lower(email) where email <> lower(email);
+
+-- Claim the emails of students and accounts written before email_identities existed
+insert into email_identities (email, student_id)
+select lower(s.email), min(s.id)
+from students s
+where not exists (select 1 from email_identities e where e.email = lower(s.email))
+group by lower(s.email);
+
+insert into email_identities (email, student_id)
+select lower(u.email), min(u.student_id)
+from users u
+where not exists (select 1 from email_identities e where e.email = lower(u.email))
+group by lower(u.email);
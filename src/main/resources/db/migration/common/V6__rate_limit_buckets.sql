@@ -0,0 +1,8 @@
+-- Shared token buckets for app.rate-limiting.backend=jdbc (JdbcRateLimitBucketStore). "If not exists" because
+-- the store used to create this table itself at startup.
+create table if not exists rate_limit_buckets (
+    bucket_key   varchar(255) not null,
+    tokens       bigint       not null,
+    window_start bigint       not null,
+    constraint pk_rate_limit_buckets primary key (bucket_key)
+);
@@ -0,0 +1,6 @@
+-- H2 cannot index expressions, so a generated column carries lower(email) for the unique index
+alter table students add column email_lower varchar(255) generated always as (lower(email));
+create unique index uk_students_email_lower on students (email_lower);
+
+alter table users add column email_lower varchar(255) generated always as (lower(email));
+create unique index uk_users_email_lower on users (email_lower);
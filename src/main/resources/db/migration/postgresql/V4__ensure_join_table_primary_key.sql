@@ -0,0 +1,12 @@
+-- Join tables created by Hibernate normally carry this key already; add it (dropping duplicate rows first)
+-- on databases where it is missing
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conrelid = 'student_courses'::regclass and contype = 'p') then
+        delete from student_courses a
+        using student_courses b
+        where a.ctid > b.ctid and a.student_id = b.student_id and a.course_id = b.course_id;
+        alter table student_courses add constraint pk_student_courses primary key (student_id, course_id);
+    end if;
+end
+$$;
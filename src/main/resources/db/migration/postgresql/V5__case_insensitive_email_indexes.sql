@@ -0,0 +1,3 @@
+-- Emails are unique regardless of case; fails if the data already holds addresses differing only in case
+create unique index if not exists uk_students_email_lower on students (lower(email));
+create unique index if not exists uk_users_email_lower on users (lower(email));
@@ -0,0 +1,118 @@
+package com.abc.jibpilot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Guards the indexes created by the Flyway migrations: the schema is built by the migrations (Hibernate only
+ * validates it), a dataset is seeded, and the plans of the hot lookups must use an index rather than a scan.
+ */
+@Tag("spring-boot")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:queryplan;DB_CLOSE_DELAY=-1")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class SchemaQueryPlanIntTest {
+
+    private static final int COURSES = 100;
+    private static final int STUDENTS = 2000;
+    private static final int COURSES_PER_STUDENT = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long courseId;
+    private long studentId;
+
+    @BeforeEach
+    void seed() {
+        Integer seeded = jdbcTemplate.queryForObject(
+                "select count(*) from courses where code like 'PLAN-%'", Integer.class);
+        if (seeded == 0) {
+            List<Object[]> courses = new ArrayList<>();
+            for (int i = 0; i < COURSES; i++) {
+                courses.add(new Object[]{"PLAN-" + i, "Course " + i});
+            }
+            jdbcTemplate.batchUpdate("insert into courses (code, title) values (?, ?)", courses);
+            List<Object[]> students = new ArrayList<>();
+            for (int i = 0; i < STUDENTS; i++) {
+                students.add(new Object[]{"First" + i, "Last" + i, "plan" + i + "@schema.test"});
+            }
+            jdbcTemplate.batchUpdate("insert into students (first_name, last_name, email) values (?, ?, ?)", students);
+
+            List<Long> courseIds = jdbcTemplate.queryForList(
+                    "select id from courses where code like 'PLAN-%' order by id", Long.class);
+            List<Long> studentIds = jdbcTemplate.queryForList(
+                    "select id from students where email like 'plan%' order by id", Long.class);
+            List<Object[]> enrollments = new ArrayList<>();
+            for (int s = 0; s < studentIds.size(); s++) {
+                for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+                    enrollments.add(new Object[]{studentIds.get(s), courseIds.get((s + c * 7) % courseIds.size())});
+                }
+            }
+            jdbcTemplate.batchUpdate("insert into student_courses (student_id, course_id) values (?, ?)", enrollments);
+            jdbcTemplate.execute("analyze");
+        }
+        courseId = jdbcTemplate.queryForObject("select min(id) from courses where code like 'PLAN-%'", Long.class);
+        studentId = jdbcTemplate.queryForObject("select min(id) from students where email like 'plan%'", Long.class);
+    }
+
+    @Test
+    void rosterLookup_usesReverseJoinTableIndex() {
+        String plan = explain("select student_id from student_courses where course_id = " + courseId);
+
+        assertThat(plan).containsIgnoringCase("idx_student_courses_course_student").doesNotContain("tableScan");
+    }
+
+    @Test
+    void rosterJoin_drivesFromReverseJoinTableIndex() {
+        String plan = explain("""
+                select s.id, s.email from students s
+                join student_courses sc on sc.student_id = s.id
+                where sc.course_id = %d
+                """.formatted(courseId));
+
+        assertThat(plan).containsIgnoringCase("idx_student_courses_course_student").doesNotContain("tableScan");
+    }
+
+    @Test
+    void studentCourseLookup_usesPrimaryKey() {
+        String plan = explain("select course_id from student_courses where student_id = " + studentId);
+
+        assertThat(plan).doesNotContain("tableScan");
+    }
+
+    @Test
+    void emailLookups_useUniqueIndexes() {
+        assertThat(explain("select id from students where email = 'plan7@schema.test'"))
+                .containsIgnoringCase("uk_students_email")
+                .doesNotContain("tableScan");
+        assertThat(explain("select id from users where email = 'plan7@schema.test'"))
+                .containsIgnoringCase("uk_users_email")
+                .doesNotContain("tableScan");
+        assertThat(explain("select student_id from email_identities where email = 'plan7@schema.test'"))
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void emails_areUniqueIgnoringCase() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "insert into students (first_name, last_name, email) values ('Case', 'Clash', 'PLAN7@Schema.Test')"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,47 @@
+package com.abc.jibpilot.actuator;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("spring-boot")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class RateLimitHeavyHittersEndpointIntTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousRequestIsRejected() throws Exception {
+        mockMvc.perform(get("/actuator/rateLimitHeavyHitters"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void nonAdminIsRejected() throws Exception {
+        mockMvc.perform(get("/actuator/rateLimitHeavyHitters"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminCanReadReport() throws Exception {
+        mockMvc.perform(get("/actuator/rateLimitHeavyHitters"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void healthStaysPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,102 @@
+package com.abc.jibpilot.auth.filter;
+
+import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.service.AppUserDetailsService;
+import com.abc.jibpilot.auth.service.JwtService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = new JwtService("test-secret-key-that-is-long-enough-for-hmac", 3600);
+    private final TokenRevocationService tokenRevocationService = new TokenRevocationService(3600);
+
+    @Mock
+    private AppUserDetailsService userDetailsService;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(new BearerTokenResolver(jwtService), userDetailsService,
+                tokenRevocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_validToken_buildsPrincipalFromClaimsWithoutLookup() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(requestWithToken(tokenFor(7L, 3L, Role.STUDENT)), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        AppUserDetails principal = (AppUserDetails) authentication.getPrincipal();
+        assertThat(principal.getUserId()).isEqualTo(7L);
+        assertThat(principal.getStudentId()).isEqualTo(3L);
+        assertThat(principal.getUsername()).isEqualTo("jane@example.com");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_STUDENT");
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateless_revokedToken_isNotAuthenticated() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        String token = tokenFor(7L, 3L, Role.STUDENT);
+        tokenRevocationService.revokeAllTokens(7L);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(requestWithToken(token), new MockHttpServletResponse(), chain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateful_validToken_loadsPrincipalFromUserDetailsService() throws Exception {
+        AppUserDetails stored = new AppUserDetails(7L, 3L, "jane@example.com", "hash", Role.STUDENT);
+        when(userDetailsService.loadUserByUsername("jane@example.com")).thenReturn(stored);
+
+        filter.doFilter(requestWithToken(tokenFor(7L, 3L, Role.STUDENT)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(stored);
+    }
+
+    private String tokenFor(Long userId, Long studentId, Role role) {
+        return jwtService.generateToken(new AppUserDetails(userId, studentId, "jane@example.com", "hash", role));
+    }
+
+    private static MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.entity.UserAccount;
+import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AppUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AppUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new AppUserDetailsService(userRepository, true, 100, 60);
+    }
+
+    @Test
+    void loadUserByUsername_repeatedLookup_hitsDatabaseOnce() {
+        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(account("jane@example.com")));
+
+        AppUserDetails first = (AppUserDetails) userDetailsService.loadUserByUsername("jane@example.com");
+        AppUserDetails second = (AppUserDetails) userDetailsService.loadUserByUsername("jane@example.com");
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByEmail("jane@example.com");
+    }
+
+    @Test
+    void evict_forcesReload() {
+        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(account("jane@example.com")));
+
+        userDetailsService.loadUserByUsername("jane@example.com");
+        userDetailsService.evict("jane@example.com");
+        userDetailsService.loadUserByUsername("jane@example.com");
+
+        verify(userRepository, times(2)).findByEmail("jane@example.com");
+    }
+
+    @Test
+    void evict_insideTransaction_waitsForCommit() {
+        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(account("jane@example.com")));
+        userDetailsService.loadUserByUsername("jane@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDetailsService.evict("jane@example.com");
+            // Before commit a reader still gets the cached principal
+            userDetailsService.loadUserByUsername("jane@example.com");
+            verify(userRepository, times(1)).findByEmail("jane@example.com");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        userDetailsService.loadUserByUsername("jane@example.com");
+        verify(userRepository, times(2)).findByEmail("jane@example.com");
+    }
+
+    @Test
+    void evict_rolledBackTransaction_keepsCachedPrincipal() {
+        when(userRepository.findByEmail("jane@example.com")).thenReturn(Optional.of(account("jane@example.com")));
+        userDetailsService.loadUserByUsername("jane@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDetailsService.evict("jane@example.com");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        userDetailsService.loadUserByUsername("jane@example.com");
+        verify(userRepository, times(1)).findByEmail("jane@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_unknownUser_isNotCached() {
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost@example.com"));
+
+        verify(userRepository, times(2)).findByEmail("ghost@example.com");
+    }
+
+    private UserAccount account(String email) {
+        return UserAccount.builder()
+                .id(1L)
+                .email(email)
+                .password("hash")
+                .role(Role.STUDENT)
+                .build();
+    }
+}
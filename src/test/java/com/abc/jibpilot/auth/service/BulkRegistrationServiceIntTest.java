@@ -0,0 +1,122 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.dto.BulkRegistrationResponse;
+import com.abc.jibpilot.auth.dto.BulkRegistrationResult;
+import com.abc.jibpilot.auth.dto.RegisterStudentRequest;
+import com.abc.jibpilot.auth.entity.UserAccount;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.repository.UserRepository;
+import com.abc.jibpilot.student.entity.Student;
+import com.abc.jibpilot.student.repository.StudentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+@Tag("spring-boot")
+@SpringBootTest
+@Transactional
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class BulkRegistrationServiceIntTest {
+
+    @Autowired
+    private BulkRegistrationService bulkRegistrationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void register_createsAccountsAndReportsEachRow() {
+        studentRepository.save(Student.builder().firstName("Taken").lastName("Student").email("taken@bulk.test").build());
+
+        BulkRegistrationResponse response = bulkRegistrationService.register(List.of(
+                new RegisterStudentRequest("Ann", "Lee", "ann@bulk.test", "Password123"),
+                new RegisterStudentRequest("Ben", "Ray", "ben@bulk.test", "Password123"),
+                new RegisterStudentRequest("Ann", "Again", "ann@bulk.test", "Password123"),
+                new RegisterStudentRequest("Tom", "Taken", "taken@bulk.test", "Password123"),
+                new RegisterStudentRequest("", "NoName", "not-an-email", "short")
+        ));
+
+        assertThat(response.total()).isEqualTo(5);
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results())
+                .extracting(BulkRegistrationResult::status)
+                .containsExactly(
+                        BulkRegistrationResult.Status.CREATED,
+                        BulkRegistrationResult.Status.CREATED,
+                        BulkRegistrationResult.Status.DUPLICATE,
+                        BulkRegistrationResult.Status.DUPLICATE,
+                        BulkRegistrationResult.Status.INVALID
+                );
+
+        Student ann = studentRepository.findByEmail("ann@bulk.test").orElseThrow();
+        assertThat(response.results().get(0).studentId()).isEqualTo(ann.getId());
+        UserAccount annAccount = userRepository.findByEmail("ann@bulk.test").orElseThrow();
+        assertThat(annAccount.getRole()).isEqualTo(Role.STUDENT);
+        assertThat(annAccount.getStudent().getId()).isEqualTo(ann.getId());
+        assertThat(passwordEncoder.matches("Password123", annAccount.getPassword())).isTrue();
+    }
+
+    @Test
+    void parseCsv_skipsHeaderAndBlankLines() throws Exception {
+        String csv = """
+                firstName,lastName,email,password
+                Cara,Moss,cara@bulk.test,Password123
+
+                Dan,Hill,dan@bulk.test,Password123
+                """;
+
+        List<RegisterStudentRequest> rows = bulkRegistrationService.parseCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(rows).extracting(RegisterStudentRequest::email)
+                .containsExactly("cara@bulk.test", "dan@bulk.test");
+    }
+
+    @Test
+    void parseCsv_tooManyRows_stopsReadingAtFirstExtraRow() {
+        byte[] row = "Eve,Stone,eve@bulk.test,Password123\n".getBytes(StandardCharsets.UTF_8);
+        long totalBytes = (long) row.length * 1_000_000;
+        AtomicLong bytesRead = new AtomicLong();
+        // A million rows, generated on demand so the test itself holds none of them
+        InputStream upload = new InputStream() {
+            @Override
+            public int read() {
+                long position = bytesRead.get();
+                if (position >= totalBytes) {
+                    return -1;
+                }
+                bytesRead.incrementAndGet();
+                return row[(int) (position % row.length)];
+            }
+        };
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> bulkRegistrationService.parseCsv(upload, 10));
+
+        assertThat(ex.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(bytesRead.get()).isLessThan(totalBytes / 100);
+    }
+}
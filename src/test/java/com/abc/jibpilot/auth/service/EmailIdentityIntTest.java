@@ -0,0 +1,110 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.dto.RegisterStudentRequest;
+import com.abc.jibpilot.student.dto.CreateStudentRequest;
+import com.abc.jibpilot.student.dto.StudentResponse;
+import com.abc.jibpilot.student.dto.UpdateStudentRequest;
+import com.abc.jibpilot.student.service.StudentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+@Tag("spring-boot")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:emailidentity;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EmailIdentityIntTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRegistrations_exactlyOneWins() {
+        String email = "race@identity.test";
+        List<CompletableFuture<?>> attempts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            attempts.add(authService.registerStudent(new RegisterStudentRequest("Race", "R" + i, email, "Password123")));
+        }
+
+        int created = 0;
+        int conflicts = 0;
+        for (CompletableFuture<?> attempt : attempts) {
+            try {
+                attempt.join();
+                created++;
+            } catch (CompletionException ex) {
+                assertThat(ex.getCause()).isInstanceOfSatisfying(ResponseStatusException.class,
+                        conflict -> assertThat(conflict.getStatusCode()).isEqualTo(CONFLICT));
+                conflicts++;
+            }
+        }
+
+        assertThat(created).isEqualTo(1);
+        assertThat(conflicts).isEqualTo(19);
+        assertThat(countRows("students", email)).isEqualTo(1);
+        assertThat(countRows("users", email)).isEqualTo(1);
+        assertThat(countRows("email_identities", email)).isEqualTo(1);
+    }
+
+    @Test
+    void studentEmail_blocksRegistrationUntilChanged() {
+        StudentResponse student = studentService.createStudent(
+                new CreateStudentRequest("Ada", "Byron", "ada@identity.test", null));
+
+        assertThatThrownBy(() -> authService.registerStudent(
+                new RegisterStudentRequest("Other", "Person", "ada@identity.test", "Password123")).join())
+                .hasCauseInstanceOf(ResponseStatusException.class);
+
+        studentService.updateStudent(student.id(),
+                new UpdateStudentRequest("Ada", "Byron", "ada.byron@identity.test", null));
+        authService.registerStudent(
+                new RegisterStudentRequest("Other", "Person", "ada@identity.test", "Password123")).join();
+
+        assertThat(countRows("email_identities", "ada.byron@identity.test")).isEqualTo(1);
+        assertThat(countRows("students", "ada@identity.test")).isEqualTo(1);
+    }
+
+    @Test
+    void accountEmail_staysClaimedAfterStudentEmailChanges() {
+        Long studentId = authService.registerStudent(
+                new RegisterStudentRequest("Grace", "Hopper", "grace@identity.test", "Password123")).join().studentId();
+
+        studentService.updateStudent(studentId,
+                new UpdateStudentRequest("Grace", "Hopper", "admiral@identity.test", null));
+
+        // The account still signs in as grace@identity.test, so nobody else may take it
+        assertThatThrownBy(() -> studentService.createStudent(
+                new CreateStudentRequest("Another", "Grace", "grace@identity.test", null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(CONFLICT));
+        assertThat(countRows("email_identities", "admiral@identity.test")).isEqualTo(1);
+
+        studentService.deleteStudent(studentId);
+
+        assertThat(countRows("email_identities", "grace@identity.test")).isZero();
+        assertThat(countRows("email_identities", "admiral@identity.test")).isZero();
+    }
+
+    private int countRows(String table, String email) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where email = ?", Integer.class, email);
+    }
+}
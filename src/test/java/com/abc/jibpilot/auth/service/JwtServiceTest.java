@@ -0,0 +1,58 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.model.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac";
+
+    private final JwtService jwtService = new JwtService(SECRET, 3600);
+
+    @Test
+    void verify_returnsAllClaimsFromSingleParse() {
+        String token = jwtService.generateToken(new AppUserDetails(7L, 3L, "jane@example.com", "hash", Role.STUDENT));
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertThat(verified.subject()).isEqualTo("jane@example.com");
+        assertThat(verified.role()).isEqualTo(Role.STUDENT);
+        assertThat(verified.studentId()).isEqualTo(3L);
+        assertThat(verified.userId()).isEqualTo(7L);
+        assertThat(verified.issuedAt()).isNotNull();
+        assertThat(verified.expiresAt()).isAfter(verified.issuedAt());
+    }
+
+    @Test
+    void verify_adminWithoutStudent_hasNullStudentId() {
+        String token = jwtService.generateToken(new AppUserDetails(1L, null, "admin@example.com", "hash", Role.ADMIN));
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertThat(verified.role()).isEqualTo(Role.ADMIN);
+        assertThat(verified.studentId()).isNull();
+    }
+
+    @Test
+    void verify_tamperedToken_throws() {
+        String token = jwtService.generateToken(new AppUserDetails(7L, 3L, "jane@example.com", "hash", Role.STUDENT));
+        JwtService otherKey = new JwtService("another-secret-key-that-is-long-enough-for-hmac", 3600);
+
+        assertThrows(JwtException.class, () -> otherKey.verify(token));
+    }
+
+    @Test
+    void verify_expiredToken_throws() {
+        JwtService expiring = new JwtService(SECRET, -60);
+        String token = expiring.generateToken(new AppUserDetails(7L, 3L, "jane@example.com", "hash", Role.STUDENT));
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+    }
+}
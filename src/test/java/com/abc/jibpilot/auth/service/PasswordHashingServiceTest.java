@@ -0,0 +1,158 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+class PasswordHashingServiceTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final PasswordHashingService hashingService = new PasswordHashingService(passwordEncoder, 1, 1, 3, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        hashingService.destroy();
+    }
+
+    @Test
+    void encode_runsOnHashingPool() throws Exception {
+        String hash = hashingService.encode("Secret123!").get(5, TimeUnit.SECONDS);
+
+        assertThat(passwordEncoder.matches("Secret123!", hash)).isTrue();
+    }
+
+    @Test
+    void verify_queueFull_rejectsWithRetryAfter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = hashingService.verify(() -> {
+            started.countDown();
+            await(release);
+            return true;
+        });
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = hashingService.verify(() -> true);
+
+        PasswordHashingBusyException ex = assertThrows(PasswordHashingBusyException.class,
+                () -> hashingService.verify(() -> true));
+
+        assertThat(ex.getStatusCode()).isEqualTo(SERVICE_UNAVAILABLE);
+        assertThat(ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void encodeAll_returnsHashesInInputOrder() {
+        List<String> hashes = hashingService.encodeAll(List.of("First123!", "Second123!", "Third123!"));
+
+        assertThat(hashes).hasSize(3);
+        assertThat(passwordEncoder.matches("First123!", hashes.get(0))).isTrue();
+        assertThat(passwordEncoder.matches("Second123!", hashes.get(1))).isTrue();
+        assertThat(passwordEncoder.matches("Third123!", hashes.get(2))).isTrue();
+    }
+
+    @Test
+    void encodeAll_encoderFailsInChunk_rethrowsOriginalException() {
+        PasswordEncoder failing = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if ("boom".contentEquals(rawPassword)) {
+                    throw new IllegalStateException("encoder failed");
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        PasswordHashingService service = new PasswordHashingService(failing,
+                PasswordHashingService.newPool(1, 1, "test-hash-"),
+                PasswordHashingService.newPool(2, 2, "test-bulk-"), 3);
+        try {
+            IllegalStateException ex = assertThrows(IllegalStateException.class,
+                    () -> service.encodeAll(List.of("fine", "boom", "fine", "fine")));
+
+            assertThat(ex).hasMessage("encoder failed");
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void encodeAll_saturatedBulkPool_leavesLoginsAlone_andCancelsSubmittedChunks() throws Exception {
+        BlockingEncoder encoder = new BlockingEncoder();
+        ThreadPoolExecutor bulkPool = PasswordHashingService.newPool(2, 1, "test-bulk-");
+        PasswordHashingService service = new PasswordHashingService(encoder,
+                PasswordHashingService.newPool(1, 1, "test-hash-"), bulkPool, 3);
+        try {
+            CompletableFuture<List<String>> running =
+                    CompletableFuture.supplyAsync(() -> service.encodeAll(List.of("block", "block")));
+            assertThat(encoder.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Both bulk workers are busy, yet a login is served straight away
+            assertThat(service.verify(() -> true).get(5, TimeUnit.SECONDS)).isTrue();
+
+            // First chunk is queued, second is rejected: the queued one must never run
+            assertThrows(PasswordHashingBusyException.class,
+                    () -> service.encodeAll(List.of("queued", "rejected")));
+
+            encoder.release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).containsExactly("hash:block", "hash:block");
+        } finally {
+            service.destroy();
+        }
+        assertThat(bulkPool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(encoder.encoded).containsExactly("block", "block");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records every password it hashes; {@code "block"} waits until {@link #release} opens.
+     */
+    private static final class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch blocked = new CountDownLatch(2);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> encoded = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if ("block".contentEquals(rawPassword)) {
+                blocked.countDown();
+                await(release);
+            }
+            encoded.add(rawPassword.toString());
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+    }
+}
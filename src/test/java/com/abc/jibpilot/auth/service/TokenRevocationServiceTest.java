@@ -0,0 +1,78 @@
+package com.abc.jibpilot.auth.service;
+
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.model.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationServiceTest {
+
+    private final TokenRevocationService revocationService = new TokenRevocationService(3600);
+
+    @Test
+    void isRevoked_tokenIssuedBeforeRevocation_isRejected() {
+        VerifiedToken token = tokenFor(5L, Instant.now().minusSeconds(30));
+
+        revocationService.revokeAllTokens(5L);
+
+        assertThat(revocationService.isRevoked(token)).isTrue();
+    }
+
+    @Test
+    void isRevoked_tokenIssuedAfterRevocation_isAccepted() {
+        revocationService.revokeAllTokens(5L);
+
+        VerifiedToken token = tokenFor(5L, Instant.now().plusSeconds(2));
+
+        assertThat(revocationService.isRevoked(token)).isFalse();
+    }
+
+    @Test
+    void isRevoked_otherUser_isAccepted() {
+        revocationService.revokeAllTokens(5L);
+
+        assertThat(revocationService.isRevoked(tokenFor(6L, Instant.now().minusSeconds(30)))).isFalse();
+    }
+
+    @Test
+    void revokeAllTokens_insideTransaction_takesEffectOnCommit() {
+        VerifiedToken token = tokenFor(5L, Instant.now().minusSeconds(30));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            revocationService.revokeAllTokens(5L);
+            assertThat(revocationService.isRevoked(token)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(revocationService.isRevoked(token)).isTrue();
+    }
+
+    @Test
+    void revokeAllTokens_rolledBackTransaction_revokesNothing() {
+        VerifiedToken token = tokenFor(5L, Instant.now().minusSeconds(30));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            revocationService.revokeAllTokens(5L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(revocationService.isRevoked(token)).isFalse();
+    }
+
+    private VerifiedToken tokenFor(Long userId, Instant issuedAt) {
+        return new VerifiedToken("user@example.com", Role.STUDENT, 1L, userId, issuedAt, issuedAt.plusSeconds(3600));
+    }
+}
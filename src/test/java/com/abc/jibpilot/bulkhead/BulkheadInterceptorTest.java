@@ -0,0 +1,132 @@
+package com.abc.jibpilot.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkheadInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private BulkheadInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new BulkheadInterceptor(true, 1);
+        interceptor.bindTo(registry);
+    }
+
+    @Test
+    void preHandle_bulkheadFull_rejectsWith503() throws Exception {
+        HandlerMethod report = handler("report");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+
+        assertThat(interceptor.preHandle(first, response, report)).isTrue();
+        BulkheadFullException rejected = assertThrows(BulkheadFullException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, report));
+
+        assertThat(rejected.getStatusCode().value()).isEqualTo(503);
+        assertThat(rejected.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(registry.get("app.bulkhead.rejected").tag("bulkhead", "report").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("app.bulkhead.saturation").tag("bulkhead", "report").gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void afterCompletion_releasesSlot() throws Exception {
+        HandlerMethod report = handler("report");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+
+        interceptor.preHandle(first, response, report);
+        interceptor.afterCompletion(first, response, report, null);
+
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, report)).isTrue();
+    }
+
+    @Test
+    void preHandle_queuedRequest_getsSlotWhenReleased() throws Exception {
+        HandlerMethod queued = handler("queuedReport");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        interceptor.preHandle(first, response, queued);
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return interceptor.preHandle(new MockHttpServletRequest(), response, queued);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        interceptor.afterCompletion(first, response, queued, null);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void preHandle_releasedSlot_goesToQueuedRequestBeforeNewcomer() throws Exception {
+        HandlerMethod fair = handler("fairReport");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        interceptor.preHandle(first, response, fair);
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return interceptor.preHandle(new MockHttpServletRequest(), response, fair);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("app.bulkhead.queued").tag("bulkhead", "fair-report").gauge().value() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        interceptor.afterCompletion(first, response, fair, null);
+
+        assertThrows(BulkheadFullException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, fair));
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void preHandle_unannotatedHandler_isNotLimited() throws Exception {
+        HandlerMethod cheap = handler("cheapRead");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, cheap)).isTrue();
+        }
+    }
+
+    private static HandlerMethod handler(String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(methodName));
+    }
+
+    public static class Handlers {
+
+        @Bulkhead(name = "report", maxConcurrent = 1, maxWaitMillis = 0)
+        public void report() {
+        }
+
+        @Bulkhead(name = "queued-report", maxConcurrent = 1, maxQueued = 1, maxWaitMillis = 5_000)
+        public void queuedReport() {
+        }
+
+        @Bulkhead(name = "fair-report", maxConcurrent = 1, maxQueued = 1, maxWaitMillis = 1_000)
+        public void fairReport() {
+        }
+
+        public void cheapRead() {
+        }
+    }
+}
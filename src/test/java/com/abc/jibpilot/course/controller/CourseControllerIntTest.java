@@ -6,6 +6,8 @@ import com.abc.jibpilot.course.dto.CourseResponse;
 import com.abc.jibpilot.course.dto.CreateCourseRequest;
 import com.abc.jibpilot.course.dto.UpdateCourseRequest;
 import com.abc.jibpilot.course.service.CourseService;
+import com.abc.jibpilot.course.service.CourseSort;
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.ratelimit.RateLimitingFilter;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.service.StudentService;
@@ -77,7 +79,7 @@ class CourseControllerIntTest {
     @WithMockUser(roles = "ADMIN")
     void getCourse_returnsCourse() throws Exception {
         CourseResponse response = new CourseResponse(7L, "CS201", "Data Structures", "Learn data structures", Set.of(2L, 3L));
-        when(courseService.getCourse(7L)).thenReturn(response);
+        when(courseService.getCourse(7L, false)).thenReturn(response);
 
         mockMvc.perform(get("/api/v1/courses/{id}", 7L))
                 .andExpect(status().isOk())
@@ -86,16 +88,16 @@ class CourseControllerIntTest {
 
     @Test
     @WithMockUser(roles = "ADMIN")
-    void getAllCourses_returnsList() throws Exception {
-        List<CourseResponse> responses = List.of(
+    void getCourses_returnsFirstPage() throws Exception {
+        CursorPage<CourseResponse> page = new CursorPage<>(List.of(
                 new CourseResponse(1L, "CS101", "Intro to CS", "Basics", Set.of(10L)),
                 new CourseResponse(2L, "CS102", "Algorithms", "Design algorithms", Set.of())
-        );
-        when(courseService.getAllCourses()).thenReturn(responses);
+        ), null);
+        when(courseService.getCourses(CourseSort.ID, null, null, false)).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/courses"))
                 .andExpect(status().isOk())
-                .andExpect(content().json(jsonMapper.writeValueAsString(responses)));
+                .andExpect(content().json(jsonMapper.writeValueAsString(page)));
     }
 
     @Test
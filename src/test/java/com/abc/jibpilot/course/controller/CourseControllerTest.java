@@ -4,6 +4,8 @@ import com.abc.jibpilot.course.dto.CourseResponse;
 import com.abc.jibpilot.course.dto.CreateCourseRequest;
 import com.abc.jibpilot.course.dto.UpdateCourseRequest;
 import com.abc.jibpilot.course.service.CourseService;
+import com.abc.jibpilot.course.service.CourseSort;
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.service.StudentService;
 import org.junit.jupiter.api.Tag;
@@ -35,6 +37,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Tag("webmvc")
@@ -84,7 +87,7 @@ class CourseControllerTest {
     @WithMockUser(roles = "ADMIN")
     void getCourse_returnsCourse() throws Exception {
         CourseResponse response = new CourseResponse(7L, "CS201", "Data Structures", "Learn data structures", Set.of(2L, 3L));
-        when(courseService.getCourse(7L)).thenReturn(response);
+        when(courseService.getCourse(7L, false)).thenReturn(response);
 
         mockMvc.perform(get("/api/v1/courses/{id}", 7L))
                 .andExpect(status().isOk())
@@ -93,16 +96,33 @@ class CourseControllerTest {
 
     @Test
     @WithMockUser(roles = "ADMIN")
-    void getAllCourses_returnsList() throws Exception {
-        List<CourseResponse> responses = List.of(
+    void getCourses_returnsFirstPage() throws Exception {
+        CursorPage<CourseResponse> page = new CursorPage<>(List.of(
                 new CourseResponse(1L, "CS101", "Intro to CS", "Basics", Set.of(10L)),
                 new CourseResponse(2L, "CS102", "Algorithms", "Design algorithms", Set.of())
-        );
-        when(courseService.getAllCourses()).thenReturn(responses);
+        ), null);
+        when(courseService.getCourses(CourseSort.ID, null, null, false)).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/courses"))
                 .andExpect(status().isOk())
-                .andExpect(content().json(jsonMapper.writeValueAsString(responses)));
+                .andExpect(content().json(jsonMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getCourses_countOnlyOmitsStudentIds() throws Exception {
+        CursorPage<CourseResponse> page = new CursorPage<>(List.of(
+                new CourseResponse(1L, "CS101", "Intro to CS", "Basics", null, 42L, 60)
+        ), null);
+        when(courseService.getCourses(CourseSort.CODE, null, 20, true)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/courses")
+                        .param("sort", "code")
+                        .param("limit", "20")
+                        .param("countOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].enrolledCount").value(42))
+                .andExpect(jsonPath("$.items[0].studentIds").doesNotExist());
     }
 
     @Test
@@ -6,25 +6,32 @@ import com.abc.jibpilot.course.dto.UpdateCourseRequest;
 import com.abc.jibpilot.course.entity.Course;
 import com.abc.jibpilot.course.exception.CourseNotFoundException;
 import com.abc.jibpilot.course.repository.CourseRepository;
-import com.abc.jibpilot.student.entity.Student;
+import com.abc.jibpilot.course.repository.CourseStudentId;
+import com.abc.jibpilot.pagination.CursorPage;
+import com.abc.jibpilot.pagination.KeysetCursor;
+import com.abc.jibpilot.pagination.PageLimits;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +40,9 @@ class CourseServiceImplTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Spy
+    private PageLimits pageLimits = new PageLimits(50, 200);
+
     @InjectMocks
     private CourseServiceImpl courseService;
 
@@ -63,7 +73,7 @@ class CourseServiceImplTest {
     void getCourse_notFoundThrows() {
         when(courseRepository.findById(5L)).thenReturn(Optional.empty());
 
-        assertThrows(CourseNotFoundException.class, () -> courseService.getCourse(5L));
+        assertThrows(CourseNotFoundException.class, () -> courseService.getCourse(5L, false));
     }
 
     @Test
@@ -78,24 +88,103 @@ class CourseServiceImplTest {
     }
 
     @Test
-    void deleteCourse_detachesFromStudents() {
-        Student student = Student.builder().id(2L).courses(new HashSet<>(Set.of(course))).build();
-        course.setStudents(new HashSet<>(Set.of(student)));
-        when(courseRepository.findById(1L)).thenReturn(Optional.of(course));
+    void deleteCourse_deletesEnrollmentsAndRowWithoutLoadingRoster() {
+        when(courseRepository.deleteCourseById(1L)).thenReturn(1);
 
         courseService.deleteCourse(1L);
 
-        assertThat(student.getCourses()).isEmpty();
-        verify(courseRepository).delete(course);
+        verify(courseRepository).deleteEnrollmentsByCourseId(1L);
+        verify(courseRepository).deleteCourseById(1L);
+        verify(courseRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteCourse_notFoundThrows() {
+        assertThrows(CourseNotFoundException.class, () -> courseService.deleteCourse(99L));
+    }
+
+    @Test
+    void getCourses_returnsMappedDtos() {
+        when(courseRepository.findPageOrderById(eq(0L), any(Limit.class))).thenReturn(List.of(course));
+        when(courseRepository.findStudentIdsByCourseIds(List.of(1L)))
+                .thenReturn(List.of(studentId(1L, 2L), studentId(1L, 3L)));
+
+        CursorPage<CourseResponse> page = courseService.getCourses(CourseSort.ID, null, null, false);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.items().get(0).code()).isEqualTo("CS101");
+        assertThat(page.items().get(0).studentIds()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(page.items().get(0).enrolledCount()).isEqualTo(2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getCourses_countOnlyReadsSeatCounterWithoutIds() {
+        course.setCapacity(30);
+        course.setEnrolledCount(7);
+        Course empty = Course.builder().id(4L).code("CS400").title("Empty").build();
+        when(courseRepository.findPageOrderById(eq(0L), any(Limit.class))).thenReturn(List.of(course, empty));
+
+        CursorPage<CourseResponse> page = courseService.getCourses(CourseSort.ID, null, null, true);
+
+        assertThat(page.items()).extracting(CourseResponse::enrolledCount).containsExactly(7L, 0L);
+        assertThat(page.items()).extracting(CourseResponse::capacity).containsExactly(30, null);
+        assertThat(page.items()).extracting(CourseResponse::studentIds).containsOnlyNulls();
+        verify(courseRepository, never()).findStudentIdsByCourseIds(any());
+    }
+
+    @Test
+    void createCourse_storesCapacity() {
+        when(courseRepository.findByCode("CS300")).thenReturn(Optional.empty());
+        when(courseRepository.save(any(Course.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CourseResponse response = courseService.createCourse(new CreateCourseRequest("CS300", "Compilers", null, 40));
+
+        assertThat(response.capacity()).isEqualTo(40);
+        assertThat(response.enrolledCount()).isZero();
+    }
+
+    @Test
+    void getCourses_continuesFromCursorOfLastRow() {
+        Course second = Course.builder().id(9L).code("CS102").title("Algorithms").build();
+        Course third = Course.builder().id(3L).code("CS103").title("Systems").build();
+        when(courseRepository.findPageOrderByCode(eq(""), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(course, second, third));
+
+        CursorPage<CourseResponse> first = courseService.getCourses(CourseSort.CODE, null, 2, true);
+
+        assertThat(first.items()).extracting(CourseResponse::code).containsExactly("CS101", "CS102");
+        assertThat(first.nextCursor()).isNotNull();
+
+        when(courseRepository.findPageOrderByCode(eq("CS102"), eq(9L), any(Limit.class))).thenReturn(List.of(third));
+
+        CursorPage<CourseResponse> next = courseService.getCourses(CourseSort.CODE, first.nextCursor(), 2, true);
+
+        assertThat(next.items()).extracting(CourseResponse::code).containsExactly("CS103");
+        assertThat(next.nextCursor()).isNull();
     }
 
     @Test
-    void getAllCourses_returnsMappedDtos() {
-        when(courseRepository.findAll()).thenReturn(List.of(course));
+    void getCourses_rejectsCursorFromAnotherSort() {
+        String idCursor = new KeysetCursor("id", 5L, "").encode();
 
-        List<CourseResponse> responses = courseService.getAllCourses();
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
+                courseService.getCourses(CourseSort.CODE, idCursor, null, false));
+
+        assertThat(ex.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
 
-        assertThat(responses).hasSize(1);
-        assertThat(responses.get(0).code()).isEqualTo("CS101");
+    private static CourseStudentId studentId(Long courseId, Long studentId) {
+        return new CourseStudentId() {
+            @Override
+            public Long getCourseId() {
+                return courseId;
+            }
+
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+        };
     }
 }
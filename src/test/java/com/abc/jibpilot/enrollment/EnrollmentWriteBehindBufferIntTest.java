@@ -0,0 +1,139 @@
+package com.abc.jibpilot.enrollment;
+
+import com.abc.jibpilot.course.dto.CourseSummaryResponse;
+import com.abc.jibpilot.course.exception.CourseFullException;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus.State;
+import com.abc.jibpilot.student.service.StudentService;
+import com.abc.jibpilot.support.RushFixture;
+import com.abc.jibpilot.support.RushIntTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RushIntTest({
+        "spring.datasource.url=jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "app.enrollment.write-behind.enabled=true",
+        "app.enrollment.write-behind.batch-size=64",
+        "app.enrollment.write-behind.max-latency-ms=5"
+})
+class EnrollmentWriteBehindBufferIntTest {
+
+    private static final int CAPACITY = 50;
+    private static final int STUDENTS = 400;
+
+    @Autowired
+    private EnrollmentWriteBehindBuffer buffer;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RushFixture rush;
+    private long courseId;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        rush = RushFixture.seed(jdbcTemplate, "WB-1", CAPACITY, "wb", STUDENTS);
+        courseId = rush.courseId();
+        studentIds = rush.studentIds();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rush.tearDown();
+    }
+
+    @Test
+    void rush_acceptsAtMostCapacityAndKeepsSeatCountExact() throws Exception {
+        ConcurrentLinkedQueue<UUID> accepted = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejectedUpFront = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long studentId : studentIds) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        accepted.add(buffer.submit(EnrollmentAction.ENROLL, studentId, courseId).id());
+                    } catch (CourseFullException ex) {
+                        rejectedUpFront.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        int applied = 0;
+        for (UUID id : accepted) {
+            EnrollmentRequestStatus status = awaitOutcome(id);
+            if (status.state() == State.APPLIED) {
+                applied++;
+            } else {
+                assertThat(status.reason()).isEqualTo("Course is full");
+            }
+        }
+
+        assertThat(applied).isEqualTo(CAPACITY);
+        assertThat(accepted.size() + rejectedUpFront.get()).isEqualTo(STUDENTS);
+        assertThat(seatsTaken()).isEqualTo(CAPACITY);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from student_courses where course_id = ?", Integer.class, courseId))
+                .isEqualTo(CAPACITY);
+        assertThat(buffer.lagNanos()).isZero();
+    }
+
+    @Test
+    void enrollThenDrop_appliedInOrderAndVisibleAfterwards() throws Exception {
+        Long studentId = studentIds.get(0);
+
+        EnrollmentRequestStatus enroll = buffer.submit(EnrollmentAction.ENROLL, studentId, courseId);
+        assertThat(awaitOutcome(enroll.id()).state()).isEqualTo(State.APPLIED);
+        // Read-your-writes: once the request is applied the enrollment is visible
+        assertThat(studentService.getStudent(studentId).courses())
+                .extracting(CourseSummaryResponse::id)
+                .containsExactly(courseId);
+
+        EnrollmentRequestStatus enrollAgain = buffer.submit(EnrollmentAction.ENROLL, studentId, courseId);
+        EnrollmentRequestStatus drop = buffer.submit(EnrollmentAction.DROP, studentId, courseId);
+
+        assertThat(awaitOutcome(enrollAgain.id()).state()).isEqualTo(State.APPLIED);
+        assertThat(awaitOutcome(drop.id()).state()).isEqualTo(State.APPLIED);
+        assertThat(studentService.getStudent(studentId).courses()).isEmpty();
+        assertThat(seatsTaken()).isZero();
+    }
+
+    private int seatsTaken() {
+        return jdbcTemplate.queryForObject("select enrolled_count from courses where id = ?", Integer.class, courseId);
+    }
+
+    private EnrollmentRequestStatus awaitOutcome(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            EnrollmentRequestStatus status = buffer.status(id).orElseThrow();
+            if (status.state() != State.PENDING) {
+                return status;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Enrollment request " + id + " still pending");
+    }
+}
@@ -0,0 +1,78 @@
+package com.abc.jibpilot.enrollment;
+
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentWriteBehindBufferTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Test
+    void retryFailure_keepsOutcomeOfCommandsAlreadyApplied() throws Exception {
+        // Course without a capacity, student exists
+        when(resultSet.wasNull()).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), anyMap(), any(RowMapper.class)))
+                .thenAnswer(invocation -> List.of(((RowMapper<?>) invocation.getArgument(2)).mapRow(resultSet, 0)));
+        when(jdbcTemplate.queryForObject(anyString(), anyMap(), eq(Long.class))).thenReturn(1L);
+        // Whole batch hits a constraint; the retry applies the first command and times out on the second
+        doThrow(new DataIntegrityViolationException("fk_student_courses_student"))
+                .doReturn(Map.of())
+                .doThrow(new QueryTimeoutException("statement timeout"))
+                .when(transactionTemplate).execute(any());
+
+        EnrollmentWriteBehindBuffer buffer =
+                new EnrollmentWriteBehindBuffer(jdbcTemplate, transactionTemplate, true, 2, 5_000, 10, 600);
+        try {
+            UUID first = buffer.submit(EnrollmentAction.ENROLL, 1L, 10L).id();
+            UUID second = buffer.submit(EnrollmentAction.ENROLL, 2L, 10L).id();
+
+            EnrollmentRequestStatus failed = awaitOutcome(buffer, second);
+            assertThat(failed.state()).isEqualTo(State.REJECTED);
+            assertThat(failed.reason()).isEqualTo("Could not be applied, please retry");
+            assertThat(buffer.status(first)).get().extracting(EnrollmentRequestStatus::state).isEqualTo(State.APPLIED);
+        } finally {
+            buffer.destroy();
+        }
+    }
+
+    private static EnrollmentRequestStatus awaitOutcome(EnrollmentWriteBehindBuffer buffer, UUID id)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        EnrollmentRequestStatus status = buffer.status(id).orElseThrow();
+        while (status.state() == State.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = buffer.status(id).orElseThrow();
+        }
+        return status;
+    }
+}
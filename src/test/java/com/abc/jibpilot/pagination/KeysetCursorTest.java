@@ -0,0 +1,48 @@
+package com.abc.jibpilot.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode_roundTripsValuesContainingSeparators() {
+        KeysetCursor cursor = new KeysetCursor("lastName", 42L, "O'Neil: Jr");
+
+        assertThat(KeysetCursor.decode(cursor.encode(), "lastName")).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_missingCursorStartsAtFirstRow() {
+        assertThat(KeysetCursor.decode(null, "id")).isEqualTo(new KeysetCursor("id", 0L, ""));
+        assertThat(KeysetCursor.decode(" ", "code")).isEqualTo(new KeysetCursor("code", 0L, ""));
+    }
+
+    @Test
+    void decode_rejectsGarbage() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> KeysetCursor.decode("not a cursor!", "id"));
+
+        assertThat(ex.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    @Test
+    void decode_rejectsCursorIssuedForAnotherSort() {
+        String cursor = new KeysetCursor("code", 5L, "CS101").encode();
+
+        assertThrows(ResponseStatusException.class, () -> KeysetCursor.decode(cursor, "id"));
+    }
+
+    @Test
+    void pageLimits_capsAndDefaults() {
+        PageLimits limits = new PageLimits(50, 200);
+
+        assertThat(limits.resolve(null)).isEqualTo(50);
+        assertThat(limits.resolve(500)).isEqualTo(200);
+        assertThrows(ResponseStatusException.class, () -> limits.resolve(0));
+    }
+}
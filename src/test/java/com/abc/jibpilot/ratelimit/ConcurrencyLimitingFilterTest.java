@@ -0,0 +1,112 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitingFilterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void doFilter_limitReached_shedsWith503() throws Exception {
+        ConcurrencyLimitingFilter filter = filter(1, 60_000);
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        // The first request is still in flight when the second one arrives
+        FilterChain chain = (request, response) -> {
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses"), second, (req, res) -> { });
+            nested.set(second);
+        };
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses"), first, chain);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(nested.get().getStatus()).isEqualTo(503);
+        assertThat(nested.get().getHeader("Retry-After")).isEqualTo("1");
+        assertThat(filter.getInFlight()).isZero();
+    }
+
+    @Test
+    void doFilter_healthCheck_isNeverShed() throws Exception {
+        ConcurrencyLimitingFilter filter = filter(1, 60_000);
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            MockHttpServletResponse health = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health/liveness"), health, (req, res) -> { });
+            nested.set(health);
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses"), new MockHttpServletResponse(), chain);
+
+        assertThat(nested.get().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_slowRequests_shrinkLimit() throws Exception {
+        ConcurrencyLimitingFilter filter = filter(40, 0);
+        FilterChain slowChain = (request, response) -> Thread.sleep(2);
+
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses"), new MockHttpServletResponse(), slowChain);
+        }
+
+        assertThat(filter.getLimit()).isLessThan(40).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void doFilter_slowByDesignRoutes_leaveLimitAlone() throws Exception {
+        ConcurrencyLimitingFilter filter = new ConcurrencyLimitingFilter(true, 40, 1, 200, 0.5, 0,
+                new String[]{"GET /api/v1/students/export", "POST /api/v1/auth/login"}, jsonMapper);
+        FilterChain slowChain = (request, response) -> Thread.sleep(2);
+
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/students/export"),
+                    new MockHttpServletResponse(), slowChain);
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/auth/login"),
+                    new MockHttpServletResponse(), slowChain);
+        }
+
+        assertThat(filter.getLimit()).isEqualTo(40);
+        assertThat(filter.getInFlight()).isZero();
+
+        // The exemption is per route and method
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/auth/login"), new MockHttpServletResponse(), slowChain);
+        assertThat(filter.getLimit()).isLessThan(40);
+    }
+
+    @Test
+    void doFilter_serverErrors_shrinkLimit() throws Exception {
+        ConcurrencyLimitingFilter filter = filter(40, 60_000);
+        FilterChain failingChain = (request, response) -> ((MockHttpServletResponse) response).setStatus(500);
+
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses"), new MockHttpServletResponse(), failingChain);
+        }
+
+        assertThat(filter.getLimit()).isLessThan(40);
+    }
+
+    @Test
+    void doFilter_healthyRequestsAtLimit_growLimit() throws Exception {
+        ConcurrencyLimitingFilter filter = filter(2, 60_000);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/courses"), new MockHttpServletResponse(),
+                (request, response) -> { });
+
+        // One of two slots in use counts as busy enough to probe for more capacity
+        assertThat(filter.getLimit()).isEqualTo(3);
+    }
+
+    private ConcurrencyLimitingFilter filter(int initialLimit, long latencyThresholdMillis) {
+        return new ConcurrencyLimitingFilter(true, initialLimit, 1, 200, 0.5, latencyThresholdMillis, new String[0],
+                jsonMapper);
+    }
+}
@@ -0,0 +1,74 @@
+package com.abc.jibpilot.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHitterTrackerTest {
+
+    @Test
+    void record_fewHeavyKeysAmongManyLightOnes_areRankedFirst() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(true, 3, 60, 4, 1024);
+
+        for (int i = 0; i < 200_000; i++) {
+            tracker.record(EndpointCategory.AUTHENTICATED, "10.0." + (i % 50_000 / 256) + "." + (i % 256), 1, true);
+            if (i % 10 == 0) {
+                tracker.record(EndpointCategory.AUTHENTICATED, "user:1", 1, true);
+            }
+            if (i % 20 == 0) {
+                tracker.record(EndpointCategory.AUTHENTICATED, "user:2", 1, false);
+            }
+        }
+
+        HeavyHitterTracker.CategoryReport report = tracker.report().get("current").categories().get("authenticated");
+        List<String> topKeys = report.topConsumers().stream().map(HeavyHitterTracker.KeyCount::key).toList();
+        assertThat(topKeys).startsWith("user:1", "user:2");
+        // Count-min never under-counts
+        assertThat(report.topConsumers().get(0).count()).isGreaterThanOrEqualTo(20_000);
+        assertThat(report.rejections()).isEqualTo(10_000);
+        assertThat(report.topRejected()).extracting(HeavyHitterTracker.KeyCount::key).containsExactly("user:2");
+    }
+
+    @Test
+    void record_topSetStaysBoundedByK() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(true, 5, 60, 4, 1024);
+
+        for (int i = 0; i < 100_000; i++) {
+            tracker.record(EndpointCategory.PUBLIC, "key-" + i, 1, true);
+        }
+
+        assertThat(tracker.report().get("current").categories().get("public").topConsumers()).hasSizeLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void report_windowElapsed_movesCountsToPrevious() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(true, 5, 0, 4, 1024);
+
+        tracker.record(EndpointCategory.AUTH, "203.0.113.9", 1, false);
+
+        assertThat(tracker.report()).containsKey("previous");
+        assertThat(tracker.report().get("current").categories().get("auth").rejections()).isZero();
+    }
+
+    @Test
+    void windowElapsed_closedInBackgroundWithoutFurtherRequests() throws InterruptedException {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(true, 5, 1, 4, 1024);
+        try {
+            tracker.record(EndpointCategory.AUTH, "203.0.113.9", 1, false);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (tracker.lastCompleted().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertThat(tracker.lastCompleted()).get()
+                    .extracting(window -> window.categories().get("auth").rejections())
+                    .isEqualTo(1L);
+        } finally {
+            tracker.destroy();
+        }
+    }
+}
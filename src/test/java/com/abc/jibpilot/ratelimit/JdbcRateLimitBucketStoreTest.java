@@ -0,0 +1,184 @@
+package com.abc.jibpilot.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcRateLimitBucketStoreTest {
+
+    private static final int AUTH_CAPACITY = 100;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private EmbeddedDatabase database;
+    private RateLimitingConfig config;
+    private JdbcRateLimitBucketStore nodeA;
+    private JdbcRateLimitBucketStore nodeB;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("classpath:db/migration/common/V6__rate_limit_buckets.sql")
+                .build();
+        config = new RateLimitingConfig();
+        ReflectionTestUtils.setField(config, "rateLimitingEnabled", true);
+        ReflectionTestUtils.setField(config, "authRequestsPerMinute", AUTH_CAPACITY);
+        ReflectionTestUtils.setField(config, "publicRequestsPerMinute", 100);
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 1000);
+        ReflectionTestUtils.setField(config, "maxBuckets", 10_000L);
+        ReflectionTestUtils.setField(config, "bucketIdleExpirySeconds", 60L);
+        ReflectionTestUtils.setField(config, "jdbcBatchSize", 20);
+        // Run background reservations inline so every test sees settled allowances
+        nodeA = new JdbcRateLimitBucketStore(config, database, clock, Runnable::run);
+        nodeB = new JdbcRateLimitBucketStore(config, database, clock, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.destroy();
+        nodeB.destroy();
+        database.shutdown();
+    }
+
+    @Test
+    void tryConsume_twoNodesSharingTable_neverExceedCapacity() {
+        int accepted = 0;
+        for (int i = 0; i < 3 * AUTH_CAPACITY; i++) {
+            JdbcRateLimitBucketStore node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.tryConsume(EndpointCategory.AUTH, "ip:203.0.113.7", 1).consumed()) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isLessThanOrEqualTo(AUTH_CAPACITY);
+        // At most one in-flight batch per node can be stranded
+        assertThat(accepted).isGreaterThanOrEqualTo(AUTH_CAPACITY - 2 * 20);
+    }
+
+    @Test
+    void tryConsume_exhaustedBucket_reportsTimeUntilWindowEnds() {
+        drain(nodeA, "ip:198.51.100.1");
+        clock.advance(Duration.ofSeconds(20));
+
+        RateLimitProbe probe = nodeA.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.1", 1);
+
+        assertThat(probe.consumed()).isFalse();
+        assertThat(probe.remainingTokens()).isZero();
+        assertThat(probe.nanosUntilRefill()).isEqualTo(Duration.ofSeconds(40).toNanos());
+    }
+
+    @Test
+    void tryConsume_afterWindowRollover_grantsTokensAgain() {
+        drain(nodeA, "ip:198.51.100.2");
+        assertThat(nodeB.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.2", 1).consumed()).isFalse();
+
+        clock.advance(Duration.ofMinutes(1));
+
+        assertThat(nodeB.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.2", 1).consumed()).isTrue();
+    }
+
+    @Test
+    void tryConsume_differentKeys_haveIndependentBuckets() {
+        drain(nodeA, "ip:198.51.100.3");
+
+        assertThat(nodeA.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.4", 1).consumed()).isTrue();
+        assertThat(nodeA.tryConsume(EndpointCategory.PUBLIC, "ip:198.51.100.3", 1).consumed()).isTrue();
+    }
+
+    @Test
+    void tryConsume_newKey_servesFirstRequestBeforeReservationCompletes() {
+        List<Runnable> pendingReservations = new ArrayList<>();
+        JdbcRateLimitBucketStore node = new JdbcRateLimitBucketStore(config, database, clock, pendingReservations::add);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+
+        RateLimitProbe probe = node.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.5", 1);
+
+        assertThat(probe.consumed()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from rate_limit_buckets", Long.class)).isZero();
+
+        pendingReservations.forEach(Runnable::run);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select tokens from rate_limit_buckets where bucket_key = ?", Long.class, "AUTH:ip:198.51.100.5"))
+                .isEqualTo(AUTH_CAPACITY - 20);
+        assertThat(node.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.5", 1).remainingTokens()).isEqualTo(18);
+    }
+
+    @Test
+    void tryConsume_creditBeyondSharedBucket_isSettledAgainstIt() {
+        drain(nodeA, "ip:198.51.100.6");
+        List<Runnable> pendingReservations = new ArrayList<>();
+        JdbcRateLimitBucketStore node = new JdbcRateLimitBucketStore(config, database, clock, pendingReservations::add);
+
+        assertThat(node.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.6", 1).consumed()).isTrue();
+        pendingReservations.forEach(Runnable::run);
+
+        assertThat(node.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.6", 1).consumed()).isFalse();
+    }
+
+    @Test
+    void purgeExpired_deletesOnlyRowsOfLongEndedWindows() {
+        nodeA.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.7", 1);
+        clock.advance(Duration.ofMinutes(2).plusSeconds(1));
+        nodeA.tryConsume(EndpointCategory.AUTH, "ip:198.51.100.8", 1);
+
+        assertThat(nodeA.purgeExpired()).isEqualTo(1);
+
+        assertThat(new JdbcTemplate(database).queryForList("select bucket_key from rate_limit_buckets", String.class))
+                .containsExactly("AUTH:ip:198.51.100.8");
+    }
+
+    private static void drain(JdbcRateLimitBucketStore store, String key) {
+        for (int i = 0; i < 2 * AUTH_CAPACITY; i++) {
+            store.tryConsume(EndpointCategory.AUTH, key, 1);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public long millis() {
+            return now.toEpochMilli();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.abc.jibpilot.auth.filter.BearerTokenResolver;
+import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.service.JwtService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitKeyResolverTest {
+
+    private static final String PROXY = "10.0.0.2";
+
+    private final JwtService jwtService = new JwtService("test-secret-key-that-is-long-enough-for-hmac", 3600);
+    private final RateLimitKeyResolver resolver = new RateLimitKeyResolver(
+            new BearerTokenResolver(jwtService),
+            new TokenRevocationService(3600),
+            new TrustedProxies(new String[]{"10.0.0.0/8", "fd00::/8"}));
+
+    @Test
+    void resolveKey_directClient_ignoresForwardedHeaders() {
+        MockHttpServletRequest request = request("198.51.100.9", "1.2.3.4");
+        request.addHeader("X-Real-IP", "5.6.7.8");
+
+        assertThat(resolver.resolveKey(request)).isEqualTo("198.51.100.9");
+    }
+
+    @Test
+    void resolveKey_spoofedLeftmostEntry_usesHopAppendedByProxy() {
+        // The client claims to be 1.2.3.4; our proxy appended the address it actually saw
+        MockHttpServletRequest request = request(PROXY, "1.2.3.4, 198.51.100.9");
+
+        assertThat(resolver.resolveKey(request)).isEqualTo("198.51.100.9");
+    }
+
+    @Test
+    void resolveKey_rotatingSpoofedEntries_allMapToSameKey() {
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletRequest request = request(PROXY, "203.0.113." + i + ", 198.51.100.9");
+            assertThat(resolver.resolveKey(request)).isEqualTo("198.51.100.9");
+        }
+    }
+
+    @Test
+    void resolveKey_spoofedTrustedLookingEntry_stopsAtFirstUntrustedHop() {
+        MockHttpServletRequest request = request(PROXY, "10.9.9.9, 198.51.100.9, 10.0.0.1");
+
+        assertThat(resolver.resolveKey(request)).isEqualTo("198.51.100.9");
+    }
+
+    @Test
+    void resolveKey_chainOfTrustedProxies_skipsAllOfThem() {
+        MockHttpServletRequest request = request(PROXY, " 2001:db8::7 ,fd00::1, 10.0.0.1");
+
+        assertThat(resolver.resolveKey(request)).isEqualTo("2001:db8::7");
+    }
+
+    @Test
+    void resolveKey_garbageHop_fallsBackToLastVerifiedAddress() {
+        MockHttpServletRequest request = request(PROXY, "198.51.100.9, not-an-ip, 10.0.0.1");
+
+        assertThat(resolver.resolveKey(request)).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void resolveKey_trustedPeerWithoutForwardedFor_usesRealIp() {
+        MockHttpServletRequest request = request(PROXY, null);
+        request.addHeader("X-Real-IP", "198.51.100.9");
+
+        assertThat(resolver.resolveKey(request)).isEqualTo("198.51.100.9");
+    }
+
+    @Test
+    void resolveKey_bearerToken_reusesKeyAcrossRequests() {
+        String token = jwtService.generateToken(new AppUserDetails(7L, 3L, "jane@example.com", "hash", Role.STUDENT));
+
+        MockHttpServletRequest first = request("198.51.100.9", null);
+        first.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockHttpServletRequest second = request("198.51.100.9", null);
+        second.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+
+        String key = resolver.resolveKey(first);
+        assertThat(key).isEqualTo("user:7");
+        assertThat(resolver.resolveKey(second)).isSameAs(key);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,268 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.abc.jibpilot.auth.filter.BearerTokenResolver;
+import com.abc.jibpilot.auth.model.AppUserDetails;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.auth.service.JwtService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RateLimitingFilterTest {
+
+    private static final long MAX_BUCKETS = 10_000;
+    private static final String CAMPUS_NAT_IP = "198.51.100.10";
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private RateLimitingConfig config;
+    private JwtService jwtService;
+    private BearerTokenResolver bearerTokenResolver;
+    private TokenRevocationService tokenRevocationService;
+    private HeavyHitterTracker heavyHitterTracker;
+    private LocalRateLimitBucketStore bucketStore;
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitingConfig();
+        ReflectionTestUtils.setField(config, "rateLimitingEnabled", true);
+        ReflectionTestUtils.setField(config, "authRequestsPerMinute", 5);
+        ReflectionTestUtils.setField(config, "publicRequestsPerMinute", 100);
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 1000);
+        ReflectionTestUtils.setField(config, "maxBuckets", MAX_BUCKETS);
+        ReflectionTestUtils.setField(config, "bucketIdleExpirySeconds", 60L);
+        jwtService = spy(new JwtService("test-secret-key-that-is-long-enough-for-hmac", 3600));
+        bearerTokenResolver = new BearerTokenResolver(jwtService);
+        tokenRevocationService = new TokenRevocationService(3600);
+        rebuildFilter();
+    }
+
+    /**
+     * Policies are precomputed from the config, so tests that change a limit rebuild the filter.
+     */
+    private void rebuildFilter() {
+        bucketStore = new LocalRateLimitBucketStore(config);
+        heavyHitterTracker = new HeavyHitterTracker(true, 5, 60, 4, 1024);
+        filter = new RateLimitingFilter(config, new RateLimitKeyResolver(bearerTokenResolver, tokenRevocationService,
+                        new TrustedProxies(new String[0])),
+                JsonMapper.builder().build(), bucketStore,
+                new RateLimitCostTable(new String[]{"GET /api/v1/students=10", "* /api/v1/courses/{id}/students=5"}),
+                heavyHitterTracker);
+    }
+
+    @Test
+    void doFilter_weightedRoute_consumesConfiguredCost() throws Exception {
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 25);
+        rebuildFilter();
+        MockHttpServletRequest roster = new MockHttpServletRequest("GET", "/api/v1/courses/42/students");
+        roster.setRemoteAddr(CAMPUS_NAT_IP);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(roster, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("X-RateLimit-Cost")).isEqualTo("5");
+        assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("20");
+
+        MockHttpServletResponse cheap = send(null);
+        assertThat(cheap.getHeader("X-RateLimit-Cost")).isEqualTo("1");
+        assertThat(cheap.getHeader("X-RateLimit-Remaining")).isEqualTo("19");
+    }
+
+    @Test
+    void doFilter_heavyCallerExhaustsBucketWhileCheapReadsWouldStillFit() throws Exception {
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 25);
+        rebuildFilter();
+        MockHttpServletRequest listing = new MockHttpServletRequest("GET", "/api/v1/students");
+        listing.setRemoteAddr(CAMPUS_NAT_IP);
+
+        filter.doFilter(listing, new MockHttpServletResponse(), chain);
+        filter.doFilter(listing, new MockHttpServletResponse(), chain);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(listing, rejected, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("X-RateLimit-Cost")).isEqualTo("10");
+        assertThat(send(null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_costAboveCapacity_isCappedSoRequestCanPass() throws Exception {
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 4);
+        rebuildFilter();
+        MockHttpServletRequest listing = new MockHttpServletRequest("GET", "/api/v1/students");
+        listing.setRemoteAddr(CAMPUS_NAT_IP);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(listing, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("X-RateLimit-Cost")).isEqualTo("4");
+    }
+
+    @Test
+    void doFilter_usersBehindSharedIp_haveSeparateBuckets() throws Exception {
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 3);
+        rebuildFilter();
+        String alice = tokenFor(11L, "alice@example.com");
+        String bob = tokenFor(12L, "bob@example.com");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(alice).getStatus()).isEqualTo(200);
+        }
+        assertThat(send(alice).getStatus()).isEqualTo(429);
+
+        MockHttpServletResponse bobResponse = send(bob);
+        assertThat(bobResponse.getStatus()).isEqualTo(200);
+        assertThat(bobResponse.getHeader("X-RateLimit-Remaining")).isEqualTo("2");
+    }
+
+    @Test
+    void doFilter_invalidToken_fallsBackToIpBucket() throws Exception {
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 3);
+        rebuildFilter();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("not-a-jwt-" + i).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(send(null).getStatus()).isEqualTo(429);
+        assertThat(send(tokenFor(11L, "alice@example.com")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_revokedToken_isNotTreatedAsUser() throws Exception {
+        ReflectionTestUtils.setField(config, "authenticatedRequestsPerMinute", 1);
+        rebuildFilter();
+        String alice = tokenFor(11L, "alice@example.com");
+        tokenRevocationService.revokeAllTokens(11L);
+
+        assertThat(send(null).getStatus()).isEqualTo(200);
+        assertThat(send(alice).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void doFilter_verifiedTokenIsReusedByAuthentication() throws Exception {
+        MockHttpServletRequest request = requestWithToken(tokenFor(11L, "alice@example.com"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(bearerTokenResolver.resolve(request)).isPresent();
+
+        verify(jwtService, times(1)).verify(anyString());
+    }
+
+    @Test
+    void doFilter_exhaustedBucket_returns429() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr("203.0.113.7");
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, chain);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request, rejected, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+    }
+
+    @Test
+    void doFilter_rejectedKey_isReportedAsHeavyHitter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr("203.0.113.66");
+
+        for (int i = 0; i < 8; i++) {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+
+        HeavyHitterTracker.CategoryReport auth = heavyHitterTracker.report().get("current").categories().get("auth");
+        assertThat(auth.rejections()).isEqualTo(3);
+        assertThat(auth.topRejected()).first()
+                .isEqualTo(new HeavyHitterTracker.KeyCount("203.0.113.66", 3));
+        assertThat(auth.topConsumers()).first()
+                .isEqualTo(new HeavyHitterTracker.KeyCount("203.0.113.66", 8));
+    }
+
+    @Test
+    void doFilter_headersReportBucketRefillTime() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr("203.0.113.8");
+        long nowSeconds = System.currentTimeMillis() / 1000;
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(request, accepted, chain);
+        for (int i = 0; i < 4; i++) {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request, rejected, chain);
+
+        assertThat(accepted.getHeader("X-RateLimit-Limit")).isEqualTo("5");
+        assertThat(Long.parseLong(accepted.getHeader("X-RateLimit-Reset"))).isBetween(nowSeconds, nowSeconds + 61);
+        long retryAfter = Long.parseLong(rejected.getHeader("Retry-After"));
+        assertThat(retryAfter).isBetween(1L, 60L);
+        // Reset comes from the bucket's own refill time rather than a fixed now + 60s
+        assertThat(Long.parseLong(rejected.getHeader("X-RateLimit-Reset")) - nowSeconds)
+                .isBetween(retryAfter, retryAfter + 1);
+    }
+
+    @Test
+    void doFilter_millionsOfDistinctKeys_keepsBucketCountAndHeapBounded() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long heapBefore = usedHeapAfterGc();
+
+        for (int i = 0; i < 2_000_000; i++) {
+            request.setRemoteAddr("10." + ((i >>> 16) & 0xFF) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF));
+            filter.doFilter(request, response, chain);
+        }
+        bucketStore.cleanUp();
+        long heapAfter = usedHeapAfterGc();
+
+        assertThat(bucketStore.estimatedSize()).isLessThanOrEqualTo(MAX_BUCKETS);
+        // Two million retained buckets would need hundreds of megabytes
+        assertThat(heapAfter - heapBefore).isLessThan(64L * 1024 * 1024);
+    }
+
+    private MockHttpServletResponse send(String token) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(requestWithToken(token), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses");
+        request.setRemoteAddr(CAMPUS_NAT_IP);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private String tokenFor(Long userId, String email) {
+        return jwtService.generateToken(new AppUserDetails(userId, userId, email, "hash", Role.STUDENT));
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,58 @@
+package com.abc.jibpilot.ratelimit;
+
+import com.abc.jibpilot.ratelimit.TrustedProxies.Hop;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrustedProxiesTest {
+
+    private final TrustedProxies trustedProxies = new TrustedProxies(new String[]{
+            "10.0.0.0/8", "192.168.1.0/24", "203.0.113.5", "fd00::/8", "2001:db8:abcd::/48"});
+
+    @Test
+    void classify_ipv4WithinAndOutsideRanges() {
+        assertThat(trustedProxies.classify("10.255.0.1")).isEqualTo(Hop.TRUSTED);
+        assertThat(trustedProxies.classify("192.168.1.77")).isEqualTo(Hop.TRUSTED);
+        assertThat(trustedProxies.classify("192.168.2.1")).isEqualTo(Hop.UNTRUSTED);
+        assertThat(trustedProxies.classify("203.0.113.5")).isEqualTo(Hop.TRUSTED);
+        assertThat(trustedProxies.classify("203.0.113.6")).isEqualTo(Hop.UNTRUSTED);
+        assertThat(trustedProxies.classify("11.0.0.1")).isEqualTo(Hop.UNTRUSTED);
+    }
+
+    @Test
+    void classify_ipv6WithinAndOutsideRanges() {
+        assertThat(trustedProxies.classify("fd12:3456::1")).isEqualTo(Hop.TRUSTED);
+        assertThat(trustedProxies.classify("2001:db8:abcd:12::1")).isEqualTo(Hop.TRUSTED);
+        assertThat(trustedProxies.classify("2001:db8:abce::1")).isEqualTo(Hop.UNTRUSTED);
+        assertThat(trustedProxies.classify("::1")).isEqualTo(Hop.UNTRUSTED);
+        assertThat(trustedProxies.classify("[fd00::1]:8443")).isEqualTo(Hop.TRUSTED);
+        assertThat(trustedProxies.classify("::ffff:10.1.2.3")).isEqualTo(Hop.TRUSTED);
+    }
+
+    @Test
+    void classify_rangeWithinLongerText_ignoresWhitespaceAndPort() {
+        String header = "198.51.100.1,  10.0.0.7:3128 ";
+
+        assertThat(trustedProxies.classify(header, 0, 12)).isEqualTo(Hop.UNTRUSTED);
+        assertThat(trustedProxies.classify(header, 13, header.length())).isEqualTo(Hop.TRUSTED);
+    }
+
+    @Test
+    void classify_malformedAddresses_areInvalid() {
+        assertThat(trustedProxies.classify("10.0.0")).isEqualTo(Hop.INVALID);
+        assertThat(trustedProxies.classify("10.0.0.256")).isEqualTo(Hop.INVALID);
+        assertThat(trustedProxies.classify("10.0.0.1.5")).isEqualTo(Hop.INVALID);
+        assertThat(trustedProxies.classify("unknown")).isEqualTo(Hop.INVALID);
+        assertThat(trustedProxies.classify("fd00::1::2")).isEqualTo(Hop.INVALID);
+        assertThat(trustedProxies.classify("fd00:12345::1")).isEqualTo(Hop.INVALID);
+        assertThat(trustedProxies.classify("")).isEqualTo(Hop.INVALID);
+    }
+
+    @Test
+    void constructor_invalidCidr_failsFast() {
+        assertThrows(IllegalArgumentException.class, () -> new TrustedProxies(new String[]{"10.0.0.0/33"}));
+        assertThrows(IllegalArgumentException.class, () -> new TrustedProxies(new String[]{"proxy.internal/24"}));
+    }
+}
@@ -5,10 +5,12 @@ import com.abc.jibpilot.auth.service.JwtService;
 import com.abc.jibpilot.course.dto.CourseSummaryResponse;
 import com.abc.jibpilot.ratelimit.RateLimitingFilter;
 import com.abc.jibpilot.security.SecurityGuard;
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.student.dto.CreateStudentRequest;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.dto.UpdateStudentRequest;
 import com.abc.jibpilot.student.service.StudentService;
+import com.abc.jibpilot.student.service.StudentSort;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -94,16 +96,37 @@ class StudentControllerIntTest {
 
     @Test
     @WithMockUser(roles = "ADMIN")
-    void getAllStudents_returnsList() throws Exception {
-        List<StudentResponse> responses = List.of(
+    void getStudents_returnsFirstPage() throws Exception {
+        CursorPage<StudentResponse> page = new CursorPage<>(List.of(
                 new StudentResponse(1L, "Alice", "Smith", "alice@example.com", Set.of()),
                 new StudentResponse(2L, "Bob", "Jones", "bob@example.com", Set.of())
-        );
-        when(studentService.getAllStudents()).thenReturn(responses);
+        ), "next");
+        when(studentService.getStudents(StudentSort.ID, null, null)).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/students"))
                 .andExpect(status().isOk())
-                .andExpect(content().json(jsonMapper.writeValueAsString(responses)));
+                .andExpect(content().json(jsonMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getStudents_passesSortCursorAndLimit() throws Exception {
+        CursorPage<StudentResponse> page = new CursorPage<>(List.of(), null);
+        when(studentService.getStudents(StudentSort.LAST_NAME, "abc", 10)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/students")
+                        .param("sort", "lastName")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(jsonMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getStudents_unknownSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/students").param("sort", "email"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
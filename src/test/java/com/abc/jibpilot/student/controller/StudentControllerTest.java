@@ -3,12 +3,19 @@ package com.abc.jibpilot.student.controller;
 import com.abc.jibpilot.auth.filter.JwtAuthenticationFilter;
 import com.abc.jibpilot.auth.service.JwtService;
 import com.abc.jibpilot.course.dto.CourseSummaryResponse;
+import com.abc.jibpilot.enrollment.EnrollmentAction;
+import com.abc.jibpilot.enrollment.EnrollmentWriteBehindBuffer;
+import com.abc.jibpilot.enrollment.dto.EnrollmentRequestStatus;
 import com.abc.jibpilot.ratelimit.RateLimitingFilter;
 import com.abc.jibpilot.security.SecurityGuard;
+import com.abc.jibpilot.pagination.CursorPage;
 import com.abc.jibpilot.student.dto.CreateStudentRequest;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.dto.UpdateStudentRequest;
+import com.abc.jibpilot.student.service.ExportFormat;
+import com.abc.jibpilot.student.service.StudentExportService;
 import com.abc.jibpilot.student.service.StudentService;
+import com.abc.jibpilot.student.service.StudentSort;
 import com.abc.jibpilot.config.JacksonConfig;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import org.junit.jupiter.api.Tag;
@@ -19,23 +26,36 @@ import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Tag("webmvc")
@@ -54,6 +74,12 @@ class StudentControllerTest {
     @MockitoBean
     private StudentService studentService;
 
+    @MockitoBean
+    private StudentExportService studentExportService;
+
+    @MockitoBean
+    private EnrollmentWriteBehindBuffer enrollmentBuffer;
+
     @MockitoBean
     private SecurityGuard securityGuard;
 
@@ -100,16 +126,64 @@ class StudentControllerTest {
 
     @Test
     @WithMockUser(roles = "ADMIN")
-    void getAllStudents_returnsList() throws Exception {
-        List<StudentResponse> responses = List.of(
+    void getStudents_returnsFirstPage() throws Exception {
+        CursorPage<StudentResponse> page = new CursorPage<>(List.of(
                 new StudentResponse(1L, "Alice", "Smith", "alice@example.com", Set.of()),
                 new StudentResponse(2L, "Bob", "Jones", "bob@example.com", Set.of())
-        );
-        when(studentService.getAllStudents()).thenReturn(responses);
+        ), "next");
+        when(studentService.getStudents(StudentSort.ID, null, null)).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/students"))
                 .andExpect(status().isOk())
-                .andExpect(content().json(jsonMapper.writeValueAsString(responses)));
+                .andExpect(content().json(jsonMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getStudents_passesSortCursorAndLimit() throws Exception {
+        CursorPage<StudentResponse> page = new CursorPage<>(List.of(), null);
+        when(studentService.getStudents(StudentSort.LAST_NAME, "abc", 10)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/students")
+                        .param("sort", "lastName")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(jsonMapper.writeValueAsString(page)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getStudents_unknownSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/students").param("sort", "email"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportStudents_streamsRequestedFormatAsAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,firstName,lastName,email,courseCodes\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(studentExportService).export(eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/students/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.csv\""))
+                .andExpect(content().string("id,firstName,lastName,email,courseCodes\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportStudents_unknownFormatIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/students/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -173,4 +247,37 @@ class StudentControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(jsonMapper.writeValueAsString(response)));
     }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void enrollInCourse_writeBehindModeAcceptsAndPointsToStatus() throws Exception {
+        when(securityGuard.canAccessStudent(anyLong())).thenReturn(true);
+        when(enrollmentBuffer.isEnabled()).thenReturn(true);
+        EnrollmentRequestStatus pending = new EnrollmentRequestStatus(UUID.fromString(
+                "7b0f6a2e-1c55-4a8e-9a43-3f4c2b1d9e10"), 6L, 11L, EnrollmentAction.ENROLL,
+                EnrollmentRequestStatus.State.PENDING, null);
+        when(enrollmentBuffer.submit(EnrollmentAction.ENROLL, 6L, 11L)).thenReturn(pending);
+
+        mockMvc.perform(post("/api/v1/students/{studentId}/courses/{courseId}", 6L, 11L))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location",
+                        "http://localhost/api/v1/students/6/enrollment-requests/7b0f6a2e-1c55-4a8e-9a43-3f4c2b1d9e10"))
+                .andExpect(content().json(jsonMapper.writeValueAsString(pending)));
+        verify(studentService, never()).enrollStudentInCourse(anyLong(), anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getEnrollmentRequest_otherStudentsRequestIsNotFound() throws Exception {
+        when(securityGuard.canAccessStudent(anyLong())).thenReturn(true);
+        UUID requestId = UUID.randomUUID();
+        when(enrollmentBuffer.status(requestId)).thenReturn(Optional.of(new EnrollmentRequestStatus(
+                requestId, 9L, 11L, EnrollmentAction.DROP, EnrollmentRequestStatus.State.APPLIED, null)));
+
+        mockMvc.perform(get("/api/v1/students/{studentId}/enrollment-requests/{requestId}", 6L, requestId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/students/{studentId}/enrollment-requests/{requestId}", 9L, requestId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("APPLIED"));
+    }
 }
@@ -0,0 +1,125 @@
+package com.abc.jibpilot.student.service;
+
+import com.abc.jibpilot.course.exception.CourseFullException;
+import com.abc.jibpilot.support.RushFixture;
+import com.abc.jibpilot.support.RushIntTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Registration-day rush: thousands of students race for the seats of one course. Commits are real, so the
+ * test runs without a test-managed transaction against its own in-memory database.
+ */
+@Slf4j
+@RushIntTest("spring.datasource.url=jdbc:h2:mem:capacity;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+class CourseCapacityConcurrencyIntTest {
+
+    private static final int CAPACITY = 150;
+    private static final int STUDENTS = 3_000;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RushFixture rush;
+    private long courseId;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        rush = RushFixture.seed(jdbcTemplate, "RUSH-1", CAPACITY, "rush", STUDENTS);
+        courseId = rush.courseId();
+        studentIds = rush.studentIds();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rush.tearDown();
+    }
+
+    @Test
+    void parallelEnrollments_neverOversellAndCountEverySeat() throws Exception {
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long startedAt;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(STUDENTS);
+            for (Long studentId : studentIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        studentService.enrollStudentInCourse(studentId, courseId);
+                        enrolled.incrementAndGet();
+                    } catch (CourseFullException ex) {
+                        full.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        unexpected.add(ex);
+                    }
+                    return null;
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        assertThat(unexpected).isEmpty();
+        assertThat(enrolled.get()).isEqualTo(CAPACITY);
+        assertThat(full.get()).isEqualTo(STUDENTS - CAPACITY);
+        assertThat(jdbcTemplate.queryForObject(
+                "select enrolled_count from courses where id = ?", Integer.class, courseId)).isEqualTo(CAPACITY);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from student_courses where course_id = ?", Integer.class, courseId))
+                .isEqualTo(CAPACITY);
+
+        double perSecond = STUDENTS / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        log.info("{} enrollment attempts for {} seats in {} ms ({}/s)",
+                STUDENTS, CAPACITY, elapsed.toMillis(), Math.round(perSecond));
+        // Generous bound: a lost-update retry loop or lock convoy would blow well past it
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void dropFreesSeatForNextStudent() {
+        jdbcTemplate.update("update courses set capacity = 1 where id = ?", courseId);
+        Long first = studentIds.get(0);
+        Long second = studentIds.get(1);
+
+        studentService.enrollStudentInCourse(first, courseId);
+        assertThrows(CourseFullException.class,
+                () -> studentService.enrollStudentInCourse(second, courseId));
+        studentService.removeStudentFromCourse(first, courseId);
+        studentService.enrollStudentInCourse(second, courseId);
+
+        assertThat(jdbcTemplate.queryForList(
+                "select student_id from student_courses where course_id = ?", Long.class, courseId))
+                .containsExactly(second);
+        assertThat(jdbcTemplate.queryForObject(
+                "select enrolled_count from courses where id = ?", Integer.class, courseId)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.abc.jibpilot.student.service;
+
+import com.abc.jibpilot.student.dto.StudentResponse;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("spring-boot")
+@SpringBootTest
+@Transactional
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class StudentExportServiceIntTest {
+
+    private static final int LARGE_STUDENT_COUNT = 100_000;
+    private static final long MAX_RETAINED_GROWTH_BYTES = 16L * 1024 * 1024;
+
+    @Autowired
+    private StudentExportService studentExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void export_ndjsonWritesOneLinePerStudentWithAllCourses() throws Exception {
+        seedCourses("NDJ", 2);
+        seedStudents("ndj", 3);
+        enroll("ndj", "NDJ");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        studentExportService.export(ExportFormat.NDJSON, out);
+
+        List<StudentResponse> exported = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            exported.add(jsonMapper.readValue(line, StudentResponse.class));
+        }
+        assertThat(exported).filteredOn(student -> student.email().startsWith("ndj"))
+                .hasSize(3)
+                .allSatisfy(student -> assertThat(student.courses()).hasSize(2));
+    }
+
+    @Test
+    void export_csvEscapesFieldsAndJoinsCourseCodes() throws Exception {
+        seedCourses("CSV", 2);
+        jdbcTemplate.update("insert into students (first_name, last_name, email) values (?, ?, ?)",
+                "=cmd", "O\"Brien, Jr", "csv0@export.test");
+        seedStudents("lonely", 1);
+        enroll("csv", "CSV");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        studentExportService.export(ExportFormat.CSV, out);
+
+        List<String> lines = List.of(out.toString(StandardCharsets.UTF_8).split("\n"));
+        assertThat(lines.get(0)).isEqualTo("id,firstName,lastName,email,courseCodes");
+        assertThat(lines).anySatisfy(line ->
+                assertThat(line).endsWith(",'=cmd,\"O\"\"Brien, Jr\",csv0@export.test,CSV-0;CSV-1"));
+        assertThat(lines).anySatisfy(line -> assertThat(line).endsWith(",lonely0@export.test,"));
+    }
+
+    @Test
+    void export_keepsRetainedHeapFlatForLargeTables() throws Exception {
+        seedCourses("BIG", 2);
+        seedStudents("big", LARGE_STUDENT_COUNT);
+        enroll("big", "BIG");
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(
+                LARGE_STUDENT_COUNT / 10, LARGE_STUDENT_COUNT * 9 / 10);
+        studentExportService.export(ExportFormat.NDJSON, out);
+
+        assertThat(out.lines).isGreaterThanOrEqualTo(LARGE_STUDENT_COUNT);
+        assertThat(out.earlySample).isPositive();
+        assertThat(out.lateSample).isPositive();
+        // Materializing the rows between the two samples would retain tens of megabytes
+        assertThat(out.lateSample - out.earlySample).isLessThan(MAX_RETAINED_GROWTH_BYTES);
+    }
+
+    private void seedCourses(String prefix, int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{prefix + "-" + i, "Course " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into courses (code, title) values (?, ?)", rows);
+    }
+
+    private void seedStudents(String prefix, int count) {
+        List<Object[]> rows = new ArrayList<>(Math.min(count, 5_000));
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"First" + i, "Last" + i, prefix + i + "@export.test"});
+            if (rows.size() == 5_000) {
+                jdbcTemplate.batchUpdate("insert into students (first_name, last_name, email) values (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into students (first_name, last_name, email) values (?, ?, ?)", rows);
+        }
+    }
+
+    private void enroll(String emailPrefix, String codePrefix) {
+        jdbcTemplate.update("""
+                insert into student_courses (student_id, course_id)
+                select s.id, c.id from students s cross join courses c
+                where s.email like ? and c.code like ?
+                """, emailPrefix + "%", codePrefix + "-%");
+    }
+
+    /**
+     * Discards the export but records the heap retained after a full GC at two points of the stream.
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long earlyLine;
+        private final long lateLine;
+        private long lines;
+        private long earlySample;
+        private long lateSample;
+
+        private HeapSamplingOutputStream(long earlyLine, long lateLine) {
+            this.earlyLine = earlyLine;
+            this.lateLine = lateLine;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+                if (lines == earlyLine) {
+                    earlySample = retainedHeap();
+                } else if (lines == lateLine) {
+                    lateSample = retainedHeap();
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private long retainedHeap() {
+            System.gc();
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.abc.jibpilot.student.service;
+
+import com.abc.jibpilot.auth.entity.UserAccount;
+import com.abc.jibpilot.auth.model.Role;
+import com.abc.jibpilot.course.entity.Course;
+import com.abc.jibpilot.course.service.CourseService;
+import com.abc.jibpilot.student.dto.StudentResponse;
+import com.abc.jibpilot.student.dto.UpdateStudentRequest;
+import com.abc.jibpilot.student.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("spring-boot")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class StudentServiceImplQueryCountIntTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllStudents_usesSameNumberOfStatementsForAnyRowCount() {
+        List<Course> courses = seedCourses("ALL", 3);
+        seedStudents("few", 3, courses);
+        long fewStatements = statementsFor(() -> studentService.getAllStudents());
+
+        seedStudents("many", 60, courses);
+        AtomicReference<List<StudentResponse>> result = new AtomicReference<>();
+        long manyStatements = statementsFor(() -> result.set(studentService.getAllStudents()));
+
+        assertThat(fewStatements).isEqualTo(1);
+        assertThat(manyStatements).isEqualTo(fewStatements);
+        assertThat(result.get()).hasSizeGreaterThanOrEqualTo(63);
+        assertThat(result.get()).filteredOn(student -> student.email().startsWith("many"))
+                .allSatisfy(student -> assertThat(student.courses()).hasSize(3));
+    }
+
+    @Test
+    void getStudentsByCourse_usesSameNumberOfStatementsForAnyRosterSize() {
+        List<Course> courses = seedCourses("ROSTER", 2);
+        Course small = courses.get(0);
+        Course large = courses.get(1);
+        seedStudents("small", 2, List.of(small, large));
+        seedStudents("large", 50, List.of(large));
+
+        long smallStatements = statementsFor(() -> studentService.getStudentsByCourse(small.getId()));
+        AtomicReference<List<StudentResponse>> roster = new AtomicReference<>();
+        long largeStatements = statementsFor(() -> roster.set(studentService.getStudentsByCourse(large.getId())));
+
+        // One existence check plus one fetch-join query
+        assertThat(smallStatements).isEqualTo(2);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(roster.get()).hasSize(52);
+        assertThat(roster.get()).filteredOn(student -> student.email().startsWith("small"))
+                .allSatisfy(student -> assertThat(student.courses()).hasSize(2));
+    }
+
+    @Test
+    void enrollAndDrop_useSameNumberOfStatementsForAnyCourseSize() {
+        List<Course> courses = seedCourses("ENROLL", 2);
+        Course quiet = courses.get(0);
+        Course popular = courses.get(1);
+        seedStudents("popular", 200, List.of(popular));
+        seedStudents("newcomer", 2, List.of());
+        List<Student> newcomers = entityManager.createQuery(
+                        "select s from Student s where s.email like 'newcomer%' order by s.id", Student.class)
+                .getResultList();
+        Long first = newcomers.get(0).getId();
+        Long second = newcomers.get(1).getId();
+
+        long quietEnroll = statementsFor(() -> studentService.enrollStudentInCourse(first, quiet.getId()));
+        AtomicReference<StudentResponse> enrolled = new AtomicReference<>();
+        long popularEnroll = statementsFor(() ->
+                enrolled.set(studentService.enrollStudentInCourse(second, popular.getId())));
+        long popularDrop = statementsFor(() -> studentService.removeStudentFromCourse(second, popular.getId()));
+
+        // One insert (or delete), one projection query and one seat counter update
+        assertThat(quietEnroll).isEqualTo(3);
+        assertThat(popularEnroll).isEqualTo(quietEnroll);
+        assertThat(popularDrop).isEqualTo(quietEnroll);
+        assertThat(enrolled.get().courses()).extracting(course -> course.id()).containsExactly(popular.getId());
+        assertThat(statementsFor(() -> studentService.enrollStudentInCourse(first, quiet.getId())))
+                .as("re-enrolling is an idempotent no-op")
+                .isEqualTo(4);
+    }
+
+    @Test
+    void updateStudent_oneCourseChangeWritesOnlyTheDelta() {
+        List<Course> courses = seedCourses("UPDATE", 31);
+        seedStudents("updated", 1, courses.subList(0, 30));
+        Student student = entityManager.createQuery(
+                        "select s from Student s where s.email = 'updated0@n1.test'", Student.class)
+                .getSingleResult();
+        Set<Long> courseIds = new HashSet<>();
+        courses.subList(1, 31).forEach(course -> courseIds.add(course.getId()));
+        UpdateStudentRequest swapOne = new UpdateStudentRequest(
+                student.getFirstName(), student.getLastName(), student.getEmail(), courseIds);
+
+        AtomicReference<StudentResponse> updated = new AtomicReference<>();
+        long swapStatements = statementsFor(() ->
+                updated.set(studentService.updateStudent(student.getId(), swapOne)));
+
+        // Load student, read its course ids, insert one row, delete one row, projection, reserve and release a seat
+        assertThat(swapStatements).isEqualTo(7);
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getCollectionRecreateCount()).isZero();
+        assertThat(statistics.getCollectionRemoveCount()).isZero();
+        assertThat(updated.get().courses()).extracting(course -> course.id())
+                .containsExactlyInAnyOrderElementsOf(courseIds);
+
+        UpdateStudentRequest rename = new UpdateStudentRequest(
+                "Renamed", student.getLastName(), student.getEmail(), courseIds);
+        long renameStatements = statementsFor(() -> studentService.updateStudent(student.getId(), rename));
+
+        // Load student, read its course ids, one update of the changed column, projection
+        assertThat(renameStatements).isEqualTo(4);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statementsFor(() -> studentService.updateStudent(student.getId(), rename)))
+                .as("an unchanged request writes nothing")
+                .isEqualTo(3);
+    }
+
+    @Test
+    void deleteStudent_usesSameNumberOfStatementsForAnyCourseCount() {
+        List<Course> courses = seedCourses("DELETE", 31);
+        seedStudents("narrow", 1, courses.subList(0, 1));
+        seedStudents("wide", 1, courses.subList(1, 31));
+        entityManager.createNativeQuery("update courses set enrolled_count = 1 where code like 'DELETE-%'")
+                .executeUpdate();
+        Long narrow = studentIdByEmail("narrow0@n1.test");
+        Long wide = studentIdByEmail("wide0@n1.test");
+
+        long narrowStatements = statementsFor(() -> studentService.deleteStudent(narrow));
+        long wideStatements = statementsFor(() -> studentService.deleteStudent(wide));
+
+        // Account lookup, seat release, join-table delete, account delete, email release, student delete
+        assertThat(narrowStatements).isEqualTo(6);
+        assertThat(wideStatements).isEqualTo(narrowStatements);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(entityManager.createNativeQuery(
+                        "select sum(enrolled_count) from courses where code like 'DELETE-%'")
+                .getSingleResult())
+                .isEqualTo(1L);
+        assertThat(entityManager.createNativeQuery(
+                        "select count(*) from users where email in ('narrow0@n1.test', 'wide0@n1.test')")
+                .getSingleResult())
+                .isEqualTo(0L);
+    }
+
+    @Test
+    void deleteCourse_doesNotLoadTheRoster() {
+        Course large = seedCourses("LARGE", 1).get(0);
+        seedStudents("roster", 2000, List.of(large));
+
+        long statements = statementsFor(() -> courseService.deleteCourse(large.getId()));
+
+        // One join-table delete and one row delete
+        assertThat(statements).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(entityManager.createNativeQuery(
+                        "select count(*) from student_courses where course_id = " + large.getId())
+                .getSingleResult())
+                .isEqualTo(0L);
+    }
+
+    private Long studentIdByEmail(String email) {
+        return entityManager.createQuery("select s.id from Student s where s.email = :email", Long.class)
+                .setParameter("email", email)
+                .getSingleResult();
+    }
+
+    private long statementsFor(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Course> seedCourses(String prefix, int count) {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Course course = Course.builder().code(prefix + "-" + i).title("Course " + i).build();
+            entityManager.persist(course);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    private void seedStudents(String prefix, int count, List<Course> courses) {
+        for (int i = 0; i < count; i++) {
+            Student student = Student.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email(prefix + i + "@n1.test")
+                    .courses(new HashSet<>(Set.copyOf(courses)))
+                    .build();
+            entityManager.persist(student);
+            if (i % 2 == 0) {
+                entityManager.persist(UserAccount.builder()
+                        .email(student.getEmail())
+                        .password("hash")
+                        .role(Role.STUDENT)
+                        .student(student)
+                        .build());
+            }
+        }
+    }
+}
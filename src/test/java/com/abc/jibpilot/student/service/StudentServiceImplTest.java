@@ -2,23 +2,35 @@ package com.abc.jibpilot.student.service;
 
 import com.abc.jibpilot.course.dto.CourseSummaryResponse;
 import com.abc.jibpilot.course.entity.Course;
+import com.abc.jibpilot.course.exception.CourseFullException;
 import com.abc.jibpilot.course.exception.CourseNotFoundException;
 import com.abc.jibpilot.course.repository.CourseRepository;
+import com.abc.jibpilot.auth.repository.UserAccountRef;
 import com.abc.jibpilot.auth.repository.UserRepository;
+import com.abc.jibpilot.auth.service.AppUserDetailsService;
+import com.abc.jibpilot.auth.service.EmailIdentityService;
+import com.abc.jibpilot.auth.service.TokenRevocationService;
+import com.abc.jibpilot.pagination.CursorPage;
+import com.abc.jibpilot.pagination.KeysetCursor;
+import com.abc.jibpilot.pagination.PageLimits;
 import com.abc.jibpilot.student.dto.CreateStudentRequest;
 import com.abc.jibpilot.student.dto.StudentResponse;
 import com.abc.jibpilot.student.dto.UpdateStudentRequest;
 import com.abc.jibpilot.student.entity.Student;
 import com.abc.jibpilot.student.exception.StudentNotFoundException;
+import com.abc.jibpilot.student.repository.StudentCourseRow;
 import com.abc.jibpilot.student.repository.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashSet;
@@ -29,6 +41,8 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.CONFLICT;
@@ -43,6 +57,14 @@ class StudentServiceImplTest {
     private CourseRepository courseRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private AppUserDetailsService userDetailsService;
+    @Mock
+    private EmailIdentityService emailIdentityService;
+    @Spy
+    private PageLimits pageLimits = new PageLimits(50, 200);
 
     @InjectMocks
     private StudentServiceImpl studentService;
@@ -52,7 +74,6 @@ class StudentServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
         course1 = Course.builder().id(1L).code("CS101").title("Intro").build();
         course2 = Course.builder().id(2L).code("MATH201").title("Algebra").build();
     }
@@ -61,6 +82,7 @@ class StudentServiceImplTest {
     void createStudent_withCourses_resolvesCoursesAndSaves() {
         CreateStudentRequest request = new CreateStudentRequest("John", "Doe", "john@example.com", Set.of(1L, 2L));
         when(courseRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(course1, course2));
+        when(courseRepository.reserveSeat(any())).thenReturn(1);
         when(studentRepository.save(any(Student.class))).thenAnswer(invocation -> {
             Student s = invocation.getArgument(0);
             s.setId(10L);
@@ -78,7 +100,8 @@ class StudentServiceImplTest {
 
     @Test
     void createStudent_conflictEmail_throwsResponseStatusException() {
-        when(studentRepository.findByEmail("dup@example.com")).thenReturn(Optional.of(new Student()));
+        when(studentRepository.save(any(Student.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_students_email\""));
 
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
                 studentService.createStudent(new CreateStudentRequest("John", "Doe", "dup@example.com", null)));
@@ -95,29 +118,121 @@ class StudentServiceImplTest {
     }
 
     @Test
-    void enrollStudentInCourse_addsRelationship() {
+    void updateStudent_emailChanged_evictsCachedPrincipals() {
         Student student = Student.builder()
-                .id(5L)
+                .id(4L)
+                .firstName("Old")
+                .lastName("Name")
+                .email("old@example.com")
+                .courses(new HashSet<>())
+                .build();
+        when(studentRepository.findById(4L)).thenReturn(Optional.of(student));
+        when(studentRepository.findRowsById(4L)).thenReturn(List.of(row(4L, course2)));
+
+        studentService.updateStudent(4L, new UpdateStudentRequest("Old", "Name", "new@example.com", null));
+
+        verify(emailIdentityService).claim("new@example.com", 4L);
+        verify(emailIdentityService).releaseIfUnused("old@example.com");
+        verify(userDetailsService).evict("old@example.com");
+        verify(userDetailsService).evict("new@example.com");
+    }
+
+    @Test
+    void updateStudent_changedCourses_writesOnlyTheDelta() {
+        Student student = Student.builder()
+                .id(4L)
                 .firstName("Alice")
                 .lastName("Smith")
                 .email("alice@example.com")
-                .courses(new HashSet<>())
                 .build();
-        when(studentRepository.findById(5L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(2L)).thenReturn(Optional.of(course2));
-        when(studentRepository.save(any(Student.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(studentRepository.findById(4L)).thenReturn(Optional.of(student));
+        when(studentRepository.findCourseIdsByStudentId(4L)).thenReturn(List.of(1L, 3L));
+        when(studentRepository.insertEnrollments(4L, Set.of(2L))).thenReturn(1);
+        when(studentRepository.deleteEnrollments(4L, Set.of(1L))).thenReturn(1);
+        when(courseRepository.reserveSeat(2L)).thenReturn(1);
+        when(studentRepository.findRowsById(4L)).thenReturn(List.of(row(4L, course2)));
+
+        studentService.updateStudent(4L, new UpdateStudentRequest("Alice", "Smith", "alice@example.com", Set.of(2L, 3L)));
+
+        verify(studentRepository).insertEnrollments(4L, Set.of(2L));
+        verify(studentRepository).deleteEnrollments(4L, Set.of(1L));
+        verify(courseRepository).reserveSeat(2L);
+        verify(courseRepository).releaseSeats(Set.of(1L));
+        verify(emailIdentityService, never()).claim(any(), any());
+        verify(courseRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void enrollStudentInCourse_insertsJoinRowAndReadsProjection() {
+        when(studentRepository.insertEnrollment(5L, 2L)).thenReturn(1);
+        when(courseRepository.reserveSeat(2L)).thenReturn(1);
+        when(studentRepository.findRowsById(5L)).thenReturn(List.of(row(5L, course2)));
+
+        StudentResponse response = studentService.enrollStudentInCourse(5L, 2L);
+
+        assertThat(response.email()).isEqualTo("alice@example.com");
+        assertThat(response.courses()).extracting(CourseSummaryResponse::id).containsExactly(2L);
+        verify(studentRepository, never()).findById(any());
+        verify(courseRepository, never()).findById(any());
+    }
+
+    @Test
+    void enrollStudentInCourse_fullCourse_throwsConflict() {
+        when(studentRepository.insertEnrollment(5L, 2L)).thenReturn(1);
+        when(courseRepository.reserveSeat(2L)).thenReturn(0);
+        when(studentRepository.findRowsById(5L)).thenReturn(List.of(row(5L, course2)));
+
+        assertThrows(CourseFullException.class, () -> studentService.enrollStudentInCourse(5L, 2L));
+    }
+
+    @Test
+    void enrollStudentInCourse_alreadyEnrolledIsNoOp() {
+        when(studentRepository.insertEnrollment(5L, 2L)).thenReturn(0);
+        when(studentRepository.existsById(5L)).thenReturn(true);
+        when(courseRepository.existsById(2L)).thenReturn(true);
+        when(studentRepository.findRowsById(5L)).thenReturn(List.of(row(5L, course2)));
 
         StudentResponse response = studentService.enrollStudentInCourse(5L, 2L);
 
         assertThat(response.courses()).extracting(CourseSummaryResponse::id).containsExactly(2L);
-        assertThat(course2.getStudents()).contains(student);
+        verify(courseRepository, never()).reserveSeat(any());
+    }
+
+    @Test
+    void enrollStudentInCourse_missingCourse_throws() {
+        when(studentRepository.insertEnrollment(5L, 9L)).thenReturn(0);
+        when(studentRepository.existsById(5L)).thenReturn(true);
+        when(courseRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(CourseNotFoundException.class, () -> studentService.enrollStudentInCourse(5L, 9L));
+    }
+
+    @Test
+    void enrollStudentInCourse_concurrentConstraintViolationIsConflict() {
+        when(studentRepository.insertEnrollment(5L, 2L)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () ->
+                studentService.enrollStudentInCourse(5L, 2L));
+
+        assertThat(ex.getStatusCode()).isEqualTo(CONFLICT);
+    }
+
+    @Test
+    void removeStudentFromCourse_deletesJoinRow() {
+        when(studentRepository.deleteEnrollment(5L, 2L)).thenReturn(1);
+        when(studentRepository.findRowsById(5L)).thenReturn(List.of(row(5L, null)));
+
+        StudentResponse response = studentService.removeStudentFromCourse(5L, 2L);
+
+        assertThat(response.courses()).isEmpty();
+        verify(courseRepository).releaseSeats(Set.of(2L));
     }
 
     @Test
     void removeStudentFromCourse_missingCourse_throws() {
-        Student student = Student.builder().id(1L).courses(new HashSet<>()).build();
-        when(studentRepository.findById(1L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(3L)).thenReturn(Optional.empty());
+        when(studentRepository.deleteEnrollment(1L, 3L)).thenReturn(0);
+        when(studentRepository.existsById(1L)).thenReturn(true);
+        when(courseRepository.existsById(3L)).thenReturn(false);
 
         assertThrows(CourseNotFoundException.class, () ->
                 studentService.removeStudentFromCourse(1L, 3L));
@@ -132,8 +247,8 @@ class StudentServiceImplTest {
                 .email("test@example.com")
                 .courses(new HashSet<>())
                 .build();
-        course1.setStudents(Set.of(student));
-        when(courseRepository.findById(1L)).thenReturn(Optional.of(course1));
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(studentRepository.findAllByCourseIdWithCourses(1L)).thenReturn(List.of(student));
 
         List<StudentResponse> result = studentService.getStudentsByCourse(1L);
 
@@ -141,6 +256,60 @@ class StudentServiceImplTest {
         assertThat(result.get(0).email()).isEqualTo("test@example.com");
     }
 
+    @Test
+    void getStudents_keepsKeysetOrderAndIssuesCursor() {
+        Student adams = Student.builder().id(7L).firstName("Ann").lastName("Adams").email("ann@example.com").build();
+        Student baker = Student.builder().id(3L).firstName("Ben").lastName("Baker").email("ben@example.com")
+                .courses(new HashSet<>(Set.of(course1))).build();
+        when(studentRepository.findPageIdsOrderByLastName(eq(""), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(7L, 3L, 12L));
+        // The fetch-join query does not preserve the keyset order
+        when(studentRepository.findAllWithCoursesByIdIn(List.of(7L, 3L))).thenReturn(List.of(baker, adams));
+
+        CursorPage<StudentResponse> page = studentService.getStudents(StudentSort.LAST_NAME, null, 2);
+
+        assertThat(page.items()).extracting(StudentResponse::id).containsExactly(7L, 3L);
+        assertThat(KeysetCursor.decode(page.nextCursor(), "lastName"))
+                .isEqualTo(new KeysetCursor("lastName", 3L, "Baker"));
+    }
+
+    @Test
+    void getStudents_lastPageHasNoCursor() {
+        when(studentRepository.findPageIdsOrderById(eq(3L), any(Limit.class))).thenReturn(List.of());
+
+        CursorPage<StudentResponse> page = studentService.getStudents(
+                StudentSort.ID, new KeysetCursor("id", 3L, "").encode(), null);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verify(studentRepository, never()).findAllWithCoursesByIdIn(any());
+    }
+
+    @Test
+    void deleteStudent_withAccount_revokesTokensAndDeletesAccount() {
+        when(userRepository.findRefByStudentId(8L)).thenReturn(Optional.of(account(42L, "gone@example.com")));
+        when(studentRepository.deleteStudentById(8L)).thenReturn(1);
+
+        studentService.deleteStudent(8L);
+
+        verify(courseRepository).releaseSeatsOfStudent(8L);
+        verify(studentRepository).deleteEnrollmentsByStudentId(8L);
+        verify(userRepository).deleteAccountById(42L);
+        verify(emailIdentityService).releaseAll(8L);
+        verify(tokenRevocationService).revokeAllTokens(42L);
+        verify(userDetailsService).evict("gone@example.com");
+        verify(studentRepository, never()).findById(any());
+    }
+
+    @Test
+    void deleteStudent_notFound_throwsWithoutRevokingAnything() {
+        when(userRepository.findRefByStudentId(99L)).thenReturn(Optional.empty());
+
+        assertThrows(StudentNotFoundException.class, () -> studentService.deleteStudent(99L));
+
+        verify(tokenRevocationService, never()).revokeAllTokens(any());
+    }
+
     @Test
     void createStudent_missingCourseId_throwsNotFoundWithMissingId() {
         CreateStudentRequest request = new CreateStudentRequest("John", "Doe", "john@example.com", Set.of(1L, 99L));
@@ -150,4 +319,57 @@ class StudentServiceImplTest {
 
         assertThat(ex.getMessage()).contains("99");
     }
+
+    private static UserAccountRef account(Long id, String email) {
+        return new UserAccountRef() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    private static StudentCourseRow row(Long studentId, Course course) {
+        return new StudentCourseRow() {
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+
+            @Override
+            public String getFirstName() {
+                return "Alice";
+            }
+
+            @Override
+            public String getLastName() {
+                return "Smith";
+            }
+
+            @Override
+            public String getEmail() {
+                return "alice@example.com";
+            }
+
+            @Override
+            public Long getCourseId() {
+                return course != null ? course.getId() : null;
+            }
+
+            @Override
+            public String getCode() {
+                return course != null ? course.getCode() : null;
+            }
+
+            @Override
+            public String getTitle() {
+                return course != null ? course.getTitle() : null;
+            }
+        };
+    }
 }
@@ -0,0 +1,60 @@
+package com.abc.jibpilot.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One course and a crowd of students racing for its seats. Rows are committed directly, so call
+ * {@link #tearDown()} after each test.
+ */
+public final class RushFixture {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String emailPattern;
+    private final long courseId;
+    private final List<Long> studentIds;
+
+    private RushFixture(JdbcTemplate jdbcTemplate, String emailPattern, long courseId, List<Long> studentIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailPattern = emailPattern;
+        this.courseId = courseId;
+        this.studentIds = studentIds;
+    }
+
+    /**
+     * Inserts course {@code courseCode} with {@code capacity} seats and {@code students} students whose emails
+     * start with {@code emailPrefix}; the prefix keeps the rows of one test apart from any other.
+     */
+    public static RushFixture seed(JdbcTemplate jdbcTemplate, String courseCode, int capacity,
+                                   String emailPrefix, int students) {
+        jdbcTemplate.update("insert into courses (code, title, capacity) values (?, ?, ?)",
+                courseCode, "Rush " + courseCode, capacity);
+        long courseId = jdbcTemplate.queryForObject("select id from courses where code = ?", Long.class, courseCode);
+
+        List<Object[]> rows = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            rows.add(new Object[]{"First" + i, "Last" + i, emailPrefix + i + "@rush.test"});
+        }
+        jdbcTemplate.batchUpdate("insert into students (first_name, last_name, email) values (?, ?, ?)", rows);
+        String emailPattern = emailPrefix + "%@rush.test";
+        List<Long> studentIds = jdbcTemplate.queryForList(
+                "select id from students where email like ? order by id", Long.class, emailPattern);
+        return new RushFixture(jdbcTemplate, emailPattern, courseId, studentIds);
+    }
+
+    public long courseId() {
+        return courseId;
+    }
+
+    public List<Long> studentIds() {
+        return studentIds;
+    }
+
+    public void tearDown() {
+        jdbcTemplate.update("delete from student_courses where course_id = ?", courseId);
+        jdbcTemplate.update("delete from students where email like ?", emailPattern);
+        jdbcTemplate.update("delete from courses where id = ?", courseId);
+    }
+}
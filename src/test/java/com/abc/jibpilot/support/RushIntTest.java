@@ -0,0 +1,33 @@
+package com.abc.jibpilot.support;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full-context test for a registration rush seeded with {@link RushFixture}. Commits are real, so each test
+ * class should point {@code spring.datasource.url} at its own in-memory database with a lock timeout, e.g.
+ * {@code jdbc:h2:mem:capacity;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Tag("spring-boot")
+@SpringBootTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public @interface RushIntTest {
+
+    /**
+     * Properties added to the test's environment.
+     */
+    @AliasFor(annotation = SpringBootTest.class, attribute = "properties")
+    String[] value() default {};
+}